@@ -3,11 +3,15 @@ package airhockey.ai;
 import airhockey.core.Mallet;
 import airhockey.core.Puck;
 import airhockey.utils.Constants;
+import airhockey.utils.RandomStream;
+import airhockey.utils.StateBuffer;
 
-public class AI {
+@SuppressWarnings("strictfp")
+public strictfp class AI {
     private float lastPuckX, lastPuckY;
     private float puckVelocityX, puckVelocityY;
     private int difficulty;
+    private boolean defendsBottom; // Which half of the table this AI plays
 
     private long reactionDelay;
     private float aiSpeed;
@@ -22,7 +26,14 @@ public class AI {
     private float cachedTargetX, cachedTargetY;
     private float lastTargetX, lastTargetY;
 
+    private RandomStream random = new RandomStream(System.nanoTime());
+
     public AI(int difficulty) {
+        this(difficulty, false);
+    }
+
+    public AI(int difficulty, boolean defendsBottom) {
+        this.defendsBottom = defendsBottom;
         setDifficulty(difficulty);
         this.lastPuckX = 0;
         this.lastPuckY = 0;
@@ -82,6 +93,45 @@ public class AI {
     }
 
 
+    // A Match hands each AI its own stream so seeded matches replay exactly
+    public void setRandom(RandomStream random) {
+        this.random = random;
+    }
+
+
+    // Snapshot support - decision timers and targets, plus the RNG position so a
+    // restored AI makes the same choices again. Difficulty is a setting, not state.
+    public void saveState(StateBuffer out) {
+        out.putFloat(lastPuckX);
+        out.putFloat(lastPuckY);
+        out.putFloat(puckVelocityX);
+        out.putFloat(puckVelocityY);
+        out.putFloat(cachedTargetX);
+        out.putFloat(cachedTargetY);
+        out.putFloat(lastTargetX);
+        out.putFloat(lastTargetY);
+        out.putLong(lastDecisionTime);
+        out.putLong(lastStrategyChange);
+        out.putLong(strategyMode);
+        out.putLong(random.getState());
+    }
+
+    public void restoreState(StateBuffer in) {
+        lastPuckX = in.getFloat();
+        lastPuckY = in.getFloat();
+        puckVelocityX = in.getFloat();
+        puckVelocityY = in.getFloat();
+        cachedTargetX = in.getFloat();
+        cachedTargetY = in.getFloat();
+        lastTargetX = in.getFloat();
+        lastTargetY = in.getFloat();
+        lastDecisionTime = in.getLong();
+        lastStrategyChange = in.getLong();
+        strategyMode = in.getInt();
+        random.setState(in.getLong());
+    }
+
+
     public String getDifficultyName() {
         switch (this.difficulty) {
             case 1: return "EASY";
@@ -92,12 +142,14 @@ public class AI {
         }
     }
 
-    public void update(Mallet mallet, Puck puck, long currentTime) {
+    public void update(Mallet mallet, Puck puck, long currentTime, float dt) {
         float dx = puck.getX() - lastPuckX;
         float dy = puck.getY() - lastPuckY;
 
-        puckVelocityX = dx;
-        puckVelocityY = dy;
+        // Keep the estimate in pixels per base tick whatever the tick rate
+        float step = dt * Constants.BASE_TICK_RATE;
+        puckVelocityX = dx / step;
+        puckVelocityY = dy / step;
 
         lastPuckX = puck.getX();
         lastPuckY = puck.getY();
@@ -109,14 +161,14 @@ public class AI {
             float predictedY = puck.getY() + puckVelocityY * predictionAccuracy;
 
             float tableXRight = Constants.TABLE_X + Constants.TABLE_WIDTH;
-            float tableYTop = Constants.TABLE_Y;
-            float tableYMid = Constants.TABLE_Y + Constants.TABLE_HEIGHT / 2;
+            float tableYTop = defendsBottom ? Constants.TABLE_Y + Constants.TABLE_HEIGHT / 2 : Constants.TABLE_Y;
+            float tableYBottom = defendsBottom ? Constants.TABLE_Y + Constants.TABLE_HEIGHT : Constants.TABLE_Y + Constants.TABLE_HEIGHT / 2;
 
             predictedX = clamp(predictedX, Constants.TABLE_X + Constants.MALLET_RADIUS, tableXRight - Constants.MALLET_RADIUS);
 
             predictedY = clamp(predictedY,
                     tableYTop + Constants.MALLET_RADIUS,
-                    tableYMid - Constants.MALLET_RADIUS);
+                    tableYBottom - Constants.MALLET_RADIUS);
 
             cachedTargetX = predictedX + randomOffset();
             cachedTargetY = predictedY + randomOffset();
@@ -134,7 +186,7 @@ public class AI {
     }
 
     private float randomOffset() {
-        return (float)((Math.random() - 0.5) * 2 * errorRange);
+        return (float)((random.nextDouble() - 0.5) * 2 * errorRange);
     }
 
     private float clamp(float val, float min, float max) {
@@ -1,146 +1,115 @@
 package airhockey.animation;
 
+import airhockey.utils.Constants;
+import airhockey.utils.RenderCache;
 import java.awt.*;
-import java.awt.geom.AffineTransform;
-import java.util.ArrayList;
-import java.util.List;
 
 public class GoalAnimation {
-    private List<Particle> particles = new ArrayList<>();
+    private static final int DURATION = 2000; // Milliseconds
+
+    private final ParticleSystem particles;
     private String scorerText;
     private long startTime;
     private boolean active = false;
     private Color color;
+    private int centerX, centerY;
 
-    class Particle {
-        float x, y;
-        float vx, vy;
-        float size;
-        Color color;
-        long birthTime;
-        float lifeTime;
-
-        Particle(float x, float y, Color color) {
-            this.x = x;
-            this.y = y;
-            this.color = color;
-            this.size = 10 + (float)Math.random() * 20;
-            this.vx = (float)(Math.random() * 8 - 4);
-            this.vy = (float)(Math.random() * -6 - 2);
-            this.birthTime = System.currentTimeMillis();
-            this.lifeTime = 1000 + (float)Math.random() * 500;
-        }
-
-        void update() {
-            x += vx;
-            y += vy;
-            vy += 0.1f;
-            size *= 0.98f;
-        }
-
-        boolean isAlive() {
-            return System.currentTimeMillis() - birthTime < lifeTime;
-        }
+    public GoalAnimation(int particleCapacity) {
+        particles = new ParticleSystem(particleCapacity);
     }
 
-    public void triggerGoal(String scorer, Color color, int centerX, int centerY) {
+    // Bursts particles out of (centerX, centerY) and centers the text on it
+    public void triggerGoal(String scorer, Color color, int centerX, int centerY, int burst, long now) {
         this.scorerText = scorer;
         this.color = color;
-        this.startTime = System.currentTimeMillis();
+        this.centerX = centerX;
+        this.centerY = centerY;
+        this.startTime = now;
         this.active = true;
-        this.particles.clear();
 
-        // Create particles
-        for (int i = 0; i < 50; i++) {
-            particles.add(new Particle(centerX, centerY, color));
-        }
+        particles.clear();
+        particles.setColor(color);
+        particles.emit(centerX, centerY, 0, 0, burst, now);
+    }
+
+    public void setParticleLimit(int limit) {
+        particles.setLimit(limit);
     }
 
-    public void update() {
+    public void update(long now) {
         if (!active) return;
 
-        // Update particles
-        particles.removeIf(particle -> !particle.isAlive());
-        for (Particle p : particles) {
-            p.update();
-        }
+        particles.update(now);
 
         // Add new particles while animation is active
-        if (System.currentTimeMillis() - startTime < 2000) {
-            if (particles.size() < 30 && Math.random() < 0.3) {
-                particles.add(new Particle(
-                        600 + (float)(Math.random() * 200 - 100),
-                        350 + (float)(Math.random() * 100 - 50),
-                        color
-                ));
+        if (now - startTime < DURATION) {
+            if (particles.size() < Constants.GOAL_TRICKLE_PARTICLES && Math.random() < 0.3) {
+                particles.emit(centerX, centerY, 100, 50, 1, now);
             }
         } else {
             active = false;
         }
     }
 
-    public void render(Graphics2D g2d) {
+    public void render(Graphics2D g2d, long now) {
         if (!active) return;
 
-        long elapsed = System.currentTimeMillis() - startTime;
+        long elapsed = now - startTime;
 
         // Draw particles
-        for (Particle p : particles) {
-            float alpha = 1.0f - ((System.currentTimeMillis() - p.birthTime) / p.lifeTime);
-            g2d.setColor(new Color(p.color.getRed(), p.color.getGreen(), p.color.getBlue(), (int)(alpha * 255)));
-            g2d.fillOval((int)p.x, (int)p.y, (int)p.size, (int)p.size);
-        }
+        particles.render(g2d, now);
 
         // Draw goal text with animation
-        if (elapsed < 2000) {
+        if (elapsed < DURATION) {
             float scale = 1.0f;
             float alpha = 1.0f;
 
             if (elapsed < 500) {
                 // Scale in
                 scale = elapsed / 500f;
-            } else if (elapsed > 1500) {
+            } else if (elapsed > DURATION - 500) {
                 // Fade out
-                alpha = 1.0f - (elapsed - 1500) / 500f;
+                alpha = 1.0f - (elapsed - (DURATION - 500)) / 500f;
             }
 
             // Draw "GOAL!" text
-            g2d.setFont(new Font("Impact", Font.BOLD, 80));
+            g2d.setFont(RenderCache.font("Impact", Font.BOLD, 80));
             String goalText = "GOAL!";
             FontMetrics fm = g2d.getFontMetrics();
             int textWidth = fm.stringWidth(goalText);
 
             // Text shadow
-            g2d.setColor(new Color(0, 0, 0, (int)(alpha * 150)));
+            g2d.setColor(RenderCache.color(0, 0, 0, (int)(alpha * 150)));
+            int textY = centerY - 50;
             g2d.drawString(goalText,
-                    600 - textWidth/2 + 3,
-                    300 + 3);
+                    centerX - textWidth/2 + 3,
+                    textY + 3);
 
             // Main text with gradient
-            GradientPaint gradient = new GradientPaint(
-                    600 - textWidth/2, 300, color,
-                    600 + textWidth/2, 300, color.brighter()
+            GradientPaint gradient = RenderCache.gradient(
+                    centerX - textWidth/2, textY, color,
+                    centerX + textWidth/2, textY, RenderCache.brighter(color)
             );
             g2d.setPaint(gradient);
             g2d.drawString(goalText,
-                    600 - textWidth/2,
-                    300);
+                    centerX - textWidth/2,
+                    textY);
 
             // Draw scorer text
             if (elapsed > 300) {
                 float scorerAlpha = Math.min(1.0f, (elapsed - 300) / 300f);
-                if (elapsed > 1500) {
+                if (elapsed > DURATION - 500) {
                     scorerAlpha = alpha;
                 }
 
-                g2d.setFont(new Font("Arial", Font.BOLD, 36));
+                g2d.setFont(RenderCache.font("Arial", Font.BOLD, 36));
                 FontMetrics sm = g2d.getFontMetrics();
                 int scorerWidth = sm.stringWidth(scorerText);
 
-                g2d.setColor(new Color(255, 255, 255, (int)(scorerAlpha * 255)));
+                g2d.setColor(RenderCache.fade(255, 255, 255, scorerAlpha));
                 g2d.drawString(scorerText,
-                        600 - scorerWidth/2,
-                        350);
+                        centerX - scorerWidth/2,
+                        centerY);
             }
         }
     }
@@ -0,0 +1,141 @@
+package airhockey.animation;
+
+import airhockey.utils.RandomStream;
+import airhockey.utils.RenderCache;
+import airhockey.utils.SpriteAtlas;
+import java.awt.*;
+import java.util.Arrays;
+
+// Fading, falling dots kept in parallel primitive arrays sized once up
+// front. Dead particles are swap-removed, so the live ones always fill
+// 0..count-1. The caller passes in the time, read once per frame. Each
+// particle is drawn from a palette of pre-rendered sprites, one per size and
+// alpha step of the current color, taken from the shared atlas.
+public class ParticleSystem {
+    private static final int SPRITE_KIND = 5;
+    private static final int MAX_SIZE = 32;
+    private static final int ALPHA_LEVELS = 16;
+
+    // Motion, in pixels per update and per update squared
+    private static final float MIN_SIZE = 10, SIZE_RANGE = 20;
+    private static final float SPEED_X = 4;
+    private static final float MIN_RISE = 2, RISE_RANGE = 6;
+    private static final float GRAVITY = 0.1f;
+    private static final float SHRINK = 0.98f;
+    private static final float MIN_LIFE = 1000, LIFE_RANGE = 500; // Milliseconds
+
+    private final float[] x, y, vx, vy, size, life;
+    private final long[] birth;
+    private int count = 0;
+    private int limit;
+
+    private final RandomStream random = new RandomStream(System.nanoTime());
+    private int rgb = -1;
+    private final SpriteAtlas.Sprite[] palette = new SpriteAtlas.Sprite[(MAX_SIZE + 1) * ALPHA_LEVELS];
+
+    public ParticleSystem(int capacity) {
+        x = new float[capacity];
+        y = new float[capacity];
+        vx = new float[capacity];
+        vy = new float[capacity];
+        size = new float[capacity];
+        life = new float[capacity];
+        birth = new long[capacity];
+        limit = capacity;
+    }
+
+    // Caps how many particles can be alive at once; emit drops the rest
+    public void setLimit(int limit) {
+        this.limit = Math.min(limit, x.length);
+    }
+
+    public void setColor(Color color) {
+        int newRgb = color.getRGB() & 0xFFFFFF;
+        if (newRgb != rgb) {
+            rgb = newRgb;
+            Arrays.fill(palette, null);
+        }
+    }
+
+    public void clear() {
+        count = 0;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    // Adds up to n particles spread uniformly over +/-spreadX, +/-spreadY
+    // around (cx, cy); any over the limit are dropped
+    public void emit(float cx, float cy, float spreadX, float spreadY, int n, long now) {
+        int end = Math.min(count + n, limit);
+        for (int i = count; i < end; i++) {
+            x[i] = cx + (float)(random.nextDouble() * 2 - 1) * spreadX;
+            y[i] = cy + (float)(random.nextDouble() * 2 - 1) * spreadY;
+            size[i] = MIN_SIZE + (float)random.nextDouble() * SIZE_RANGE;
+            vx[i] = (float)(random.nextDouble() * 2 - 1) * SPEED_X;
+            vy[i] = -MIN_RISE - (float)random.nextDouble() * RISE_RANGE;
+            birth[i] = now;
+            life[i] = MIN_LIFE + (float)random.nextDouble() * LIFE_RANGE;
+        }
+        count = end;
+    }
+
+    public void update(long now) {
+        int i = 0;
+        while (i < count) {
+            if (now - birth[i] >= life[i]) {
+                // Swap the last live particle in and look at slot i again
+                count--;
+                x[i] = x[count];
+                y[i] = y[count];
+                vx[i] = vx[count];
+                vy[i] = vy[count];
+                size[i] = size[count];
+                life[i] = life[count];
+                birth[i] = birth[count];
+                continue;
+            }
+            x[i] += vx[i];
+            y[i] += vy[i];
+            vy[i] += GRAVITY;
+            size[i] *= SHRINK;
+            i++;
+        }
+    }
+
+    public void render(Graphics2D g2d, long now) {
+        SpriteAtlas atlas = SpriteAtlas.shared();
+        for (int i = 0; i < count; i++) {
+            int diameter = Math.min((int)size[i], MAX_SIZE);
+            // Clamped: a particle can expire between update() and render()
+            float alpha = Math.max(0f, 1.0f - (now - birth[i]) / life[i]);
+            int level = Math.round(alpha * (ALPHA_LEVELS - 1));
+            if (diameter <= 0 || level == 0) continue;
+
+            int slot = diameter * ALPHA_LEVELS + level;
+            SpriteAtlas.Sprite sprite = palette[slot];
+            if (sprite == null) {
+                sprite = paintSprite(atlas, diameter, level);
+                palette[slot] = sprite;
+            }
+            atlas.draw(g2d, sprite, (int)x[i], (int)y[i]);
+        }
+    }
+
+    // A dot anchored at its top-left corner, like fillOval, with a pixel of
+    // room for the antialiased edge
+    private SpriteAtlas.Sprite paintSprite(SpriteAtlas atlas, int diameter, int level) {
+        long key = SpriteAtlas.key(SPRITE_KIND, rgb, diameter, level);
+        SpriteAtlas.Sprite sprite = atlas.find(key);
+        if (sprite == null) {
+            Color color = RenderCache.color(rgb >> 16 & 0xFF, rgb >> 8 & 0xFF, rgb & 0xFF,
+                    level * 255 / (ALPHA_LEVELS - 1));
+            sprite = atlas.add(key, 1, 1, diameter + 2, diameter + 2, g -> {
+                g.setColor(color);
+                g.fillOval(0, 0, diameter, diameter);
+            });
+        }
+        return sprite;
+    }
+}
@@ -1,5 +1,6 @@
 package airhockey.audio;
 
+import airhockey.utils.AssetPreloader;
 import javax.sound.sampled.*;
 import java.io.*;
 import java.net.URL;
@@ -14,32 +15,73 @@ public class AudioManager {
     private boolean musicEnabled = true;
     private float volume = 0.8f;
 
+    // PCM for every sound, synthesized or decoded once by the asset loader
+    // and shared by all matches; each AudioManager only opens clips on it
+    private static final String SOUNDS = "sounds";
+
+    private static final class Sound {
+        final AudioFormat format;
+        final byte[] data;
+
+        Sound(AudioFormat format, byte[] data) {
+            this.format = format;
+            this.data = data;
+        }
+    }
+
+    private static final class SoundBank {
+        Sound hit, goal, powerUp, backgroundMusic;
+    }
+
     public AudioManager() {
         loadSounds();
     }
 
+    // Starts preparing the sounds in the background, ahead of the first match
+    public static void preloadSounds() {
+        AssetPreloader.preload(SOUNDS, AudioManager::prepareSounds);
+    }
+
     private void loadSounds() {
+        SoundBank sounds = AssetPreloader.get(SOUNDS, AudioManager::prepareSounds);
+        if (sounds == null) return;
+
         try {
-            // Hit sound (beep)
-            hitSound = createBeepSound(800, 50, 0.7f);
+            hitSound = openClip(sounds.hit);
+            goalSound = openClip(sounds.goal);
+            powerUpSound = openClip(sounds.powerUp);
+            backgroundMusic = openClip(sounds.backgroundMusic);
+        } catch (Exception e) {
+            System.out.println("Audio initialization: " + e.getMessage());
+        }
+    }
 
-            // Goal sound (higher beep)
-            goalSound = createBeepSound(1200, 150, 0.8f);
+    private static Clip openClip(Sound sound) throws LineUnavailableException {
+        if (sound == null) return null;
+        Clip clip = AudioSystem.getClip();
+        clip.open(sound.format, sound.data, 0, sound.data.length);
+        return clip;
+    }
 
-            // Power-up sound
-            powerUpSound = createBeepSound(600, 100, 0.6f);
+    private static SoundBank prepareSounds() {
+        SoundBank sounds = new SoundBank();
 
-            // Try to load actual sound files if available
-            tryLoadExternalSounds();
+        // Hit sound (beep)
+        sounds.hit = createBeepSound(800, 50, 0.7f);
 
-        } catch (Exception e) {
-            System.out.println("Audio initialization: " + e.getMessage());
-        }
+        // Goal sound (higher beep)
+        sounds.goal = createBeepSound(1200, 150, 0.8f);
+
+        // Power-up sound
+        sounds.powerUp = createBeepSound(600, 100, 0.6f);
+
+        // Try to load actual sound files if available
+        tryLoadExternalSounds(sounds);
+        return sounds;
     }
 
-    private void tryLoadExternalSounds() {
+    private static void tryLoadExternalSounds(SoundBank sounds) {
         String[] soundFiles = {
-                "sounds/Audio/Air Hockey HD (mp3cut.net).wav",
                 "sounds/Audio/Funny_Background_Music_For_Videos_-_Instrumental_F.wav",
                 "sounds/Audio/zapsplat_magic_wand_zap_spell_005_12559.wav"
         };
@@ -48,14 +90,12 @@ public class AudioManager {
             try {
                 File soundFile = new File(filePath);
                 if (soundFile.exists()) {
-                    AudioInputStream audioStream = AudioSystem.getAudioInputStream(soundFile);
-                    Clip clip = AudioSystem.getClip();
-                    clip.open(audioStream);
+                    Sound sound = readSound(soundFile);
 
                     if (filePath.contains("magic_wand")) {
-                        powerUpSound = clip;
+                        sounds.powerUp = sound;
                     } else if (filePath.contains("Background")) {
-                        backgroundMusic = clip;
+                        sounds.backgroundMusic = sound;
                     }
                 }
             } catch (Exception e) {
@@ -64,9 +104,20 @@ public class AudioManager {
         }
     }
 
-    private Clip createBeepSound(int frequency, int duration, float amplitude) throws LineUnavailableException {
-        Clip clip = AudioSystem.getClip();
+    // Decodes the whole file, so opening a clip on it later reads no disk
+    private static Sound readSound(File file) throws IOException, UnsupportedAudioFileException {
+        try (AudioInputStream audioStream = AudioSystem.getAudioInputStream(file)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] chunk = new byte[8192];
+            int n;
+            while ((n = audioStream.read(chunk)) > 0) {
+                out.write(chunk, 0, n);
+            }
+            return new Sound(audioStream.getFormat(), out.toByteArray());
+        }
+    }
 
+    private static Sound createBeepSound(int frequency, int duration, float amplitude) {
         // Create a sine wave
         int sampleRate = 44100;
         int numSamples = duration * sampleRate / 1000;
@@ -94,9 +145,7 @@ public class AudioManager {
         }
 
         AudioFormat format = new AudioFormat(sampleRate, 8, 1, true, false);
-        clip.open(format, buffer, 0, buffer.length);
-
-        return clip;
+        return new Sound(format, buffer);
     }
 
     public void playHit() {
@@ -0,0 +1,80 @@
+package airhockey.bench;
+
+import airhockey.core.Mallet;
+import airhockey.core.Puck;
+import airhockey.physics.PhysicsEngine;
+import airhockey.sim.BatchWorld;
+import airhockey.utils.Constants;
+
+import java.util.Random;
+
+// Match-ticks per second of BatchWorld (single thread and ForkJoin) against
+// stepping the same chase-the-puck matches as Puck/Mallet objects one by one.
+// Usage: java -Djava.awt.headless=true airhockey.bench.BatchBenchmark [matches] [ticks]
+public class BatchBenchmark {
+    private static final float DT = 1.0f / 60;
+
+    public static void main(String[] args) {
+        int matches = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int ticks = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+
+        System.out.printf("%d matches x %d ticks, %d cores%n",
+                matches, ticks, Runtime.getRuntime().availableProcessors());
+
+        // Short runs first so every path is compiled before it is timed
+        runObjects(matches, ticks / 4);
+        runBatch(matches, ticks / 4, false);
+        runBatch(matches, ticks / 4, true);
+
+        report("Puck/Mallet objects", runObjects(matches, ticks), matches, ticks);
+        report("BatchWorld 1 thread", runBatch(matches, ticks, false), matches, ticks);
+        report("BatchWorld ForkJoin", runBatch(matches, ticks, true), matches, ticks);
+    }
+
+    private static void report(String name, long nanos, int matches, int ticks) {
+        double matchTicks = (double) matches * ticks;
+        System.out.printf("%-22s %8.1f M match-ticks/s%n", name, matchTicks / nanos * 1e3);
+    }
+
+    private static long runBatch(int matches, int ticks, boolean parallel) {
+        BatchWorld world = new BatchWorld(matches, 42);
+        long start = System.nanoTime();
+        for (int t = 0; t < ticks; t++) {
+            world.step(DT, parallel);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long runObjects(int matches, int ticks) {
+        Puck[] pucks = new Puck[matches];
+        Mallet[][] mallets = new Mallet[matches][];
+        Random random = new Random(42);
+        for (int i = 0; i < matches; i++) {
+            pucks[i] = new Puck(Constants.WINDOW_WIDTH / 2, Constants.WINDOW_HEIGHT / 2);
+            pucks[i].setVelocityX(random.nextFloat() * 6 - 3);
+            pucks[i].setVelocityY(random.nextBoolean() ? 2 : -2);
+            Mallet player1 = new Mallet(Constants.WINDOW_WIDTH / 2, Constants.TABLE_Y + Constants.TABLE_HEIGHT - 100, true);
+            player1.setMouseControl(false);
+            Mallet player2 = new Mallet(Constants.WINDOW_WIDTH / 2, Constants.TABLE_Y + 100, false);
+            mallets[i] = new Mallet[]{player1, player2};
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < matches; i++) {
+            Puck puck = pucks[i];
+            Mallet[] pair = mallets[i];
+            for (int t = 0; t < ticks; t++) {
+                pair[0].moveTo(puck.getX(), puck.getY() + Constants.PUCK_RADIUS);
+                pair[1].moveTo(puck.getX(), puck.getY() - Constants.PUCK_RADIUS);
+                pair[0].update(DT);
+                pair[1].update(DT);
+                PhysicsEngine.movePuck(puck, pair, DT, null);
+                puck.update(DT);
+                if (puck.isInGoal(true) || puck.isInGoal(false)) {
+                    puck.reset();
+                }
+            }
+        }
+        return System.nanoTime() - start;
+    }
+}
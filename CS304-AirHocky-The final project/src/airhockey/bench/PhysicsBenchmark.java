@@ -0,0 +1,117 @@
+package airhockey.bench;
+
+import airhockey.core.Mallet;
+import airhockey.core.Puck;
+import airhockey.physics.PhysicsEngine;
+import airhockey.utils.Constants;
+
+import java.util.Arrays;
+import java.util.Random;
+
+// Micro-benchmarks for the physics hot path. The project has no build tool to
+// host JMH, so this follows the same recipe by hand: fixed working sets, warm-up
+// rounds before measuring, median of several rounds and a sink for every result.
+// Usage: java -Djava.awt.headless=true airhockey.bench.PhysicsBenchmark [rounds]
+public class PhysicsBenchmark {
+    private static final int SET_SIZE = 1024;
+    private static final int OPS_PER_ROUND = 2_000_000;
+    private static final float DT = 1.0f / 60;
+
+    private static final Puck[] pucks = new Puck[SET_SIZE];
+    private static final Mallet[] mallets = new Mallet[SET_SIZE];
+    private static final float[] startState = new float[SET_SIZE * 6];
+
+    static int sink;
+
+    interface Op {
+        void run(int i);
+    }
+
+    public static void main(String[] args) {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 7;
+        createWorkingSet();
+
+        Mallet[] pair = new Mallet[2];
+        measure("checkCollision", rounds, i -> { if (PhysicsEngine.checkCollision(pucks[i], mallets[i])) sink++; });
+        measure("handleCollision", rounds, i -> PhysicsEngine.handleCollision(pucks[i], mallets[i]));
+        measure("handleWallCollision", rounds, PhysicsBenchmark::wallCollision);
+        measure("Puck.update", rounds, i -> pucks[i].update(DT));
+        measure("Mallet.update", rounds, i -> mallets[i].update(DT));
+        measure("movePuck", rounds, i -> {
+            pair[0] = mallets[i];
+            pair[1] = mallets[(i + 1) & (SET_SIZE - 1)];
+            PhysicsEngine.movePuck(pucks[i], pair, DT, null);
+        });
+    }
+
+    private static void wallCollision(int i) {
+        PhysicsEngine.handleWallCollision(pucks[i]);
+    }
+
+    // Pucks close to mallets and walls so every branch of the collision code runs
+    private static void createWorkingSet() {
+        Random random = new Random(7);
+        for (int i = 0; i < SET_SIZE; i++) {
+            float mx = Constants.TABLE_X + 40 + random.nextFloat() * (Constants.TABLE_WIDTH - 80);
+            float my = Constants.TABLE_Y + Constants.TABLE_HEIGHT / 2 + 40 + random.nextFloat() * (Constants.TABLE_HEIGHT / 2 - 80);
+            float angle = random.nextFloat() * 6.2831855f;
+            float distance = 30 + random.nextFloat() * 30;
+
+            startState[i * 6] = mx + (float)Math.cos(angle) * distance;
+            startState[i * 6 + 1] = my + (float)Math.sin(angle) * distance;
+            startState[i * 6 + 2] = random.nextFloat() * 40 - 20;
+            startState[i * 6 + 3] = random.nextFloat() * 40 - 20;
+            startState[i * 6 + 4] = mx;
+            startState[i * 6 + 5] = my;
+
+            pucks[i] = new Puck(0, 0);
+            mallets[i] = new Mallet(mx, my, true);
+        }
+    }
+
+    private static void restoreWorkingSet() {
+        for (int i = 0; i < SET_SIZE; i++) {
+            Puck puck = pucks[i];
+            puck.setX(startState[i * 6]);
+            puck.setY(startState[i * 6 + 1]);
+            puck.setVelocityX(startState[i * 6 + 2]);
+            puck.setVelocityY(startState[i * 6 + 3]);
+
+            Mallet mallet = mallets[i];
+            mallet.setX(startState[i * 6 + 4]);
+            mallet.setY(startState[i * 6 + 5]);
+            mallet.moveTo(startState[i * 6], startState[i * 6 + 1]);
+        }
+    }
+
+    private static void measure(String name, int rounds, Op op) {
+        // Warm-up rounds let the JIT compile the path before anything is timed
+        for (int r = 0; r < 3; r++) {
+            runRound(op);
+        }
+
+        long[] times = new long[rounds];
+        for (int r = 0; r < rounds; r++) {
+            times[r] = runRound(op);
+        }
+        Arrays.sort(times);
+
+        double nsPerOp = (double) times[rounds / 2] / OPS_PER_ROUND;
+        System.out.printf("%-20s %7.2f ns/op%n", name, nsPerOp);
+    }
+
+    // Restores the working set every SET_SIZE ops so state never drifts away
+    // from the contact cases; the restore is excluded from the timing
+    private static long runRound(Op op) {
+        long total = 0;
+        for (int done = 0; done < OPS_PER_ROUND; done += SET_SIZE) {
+            restoreWorkingSet();
+            long start = System.nanoTime();
+            for (int i = 0; i < SET_SIZE; i++) {
+                op.run(i);
+            }
+            total += System.nanoTime() - start;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,106 @@
+package airhockey.bench;
+
+import airhockey.core.Mallet;
+import airhockey.core.Puck;
+import airhockey.utils.Constants;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Random;
+
+// Per-entity cost of drawing pucks and mallets, from sprites against the old
+// vector drawing, with 2 bodies (a normal match) and 500 (a chaos-sized crowd).
+// Draws into an offscreen image with the renderer's hints; same recipe as
+// PhysicsBenchmark (warm-up rounds, median of the timed ones).
+// Usage: java -Djava.awt.headless=true airhockey.bench.RenderBenchmark [rounds]
+public class RenderBenchmark {
+    private static final int ENTITIES_PER_ROUND = 10_000;
+    private static final int[] BODY_COUNTS = {2, 500};
+
+    interface Draw {
+        void draw(Graphics2D g2d, int i);
+    }
+
+    private static float[] xs, ys, vxs, vys;
+
+    public static void main(String[] args) {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 7;
+
+        BufferedImage target = new BufferedImage(Constants.WINDOW_WIDTH, Constants.WINDOW_HEIGHT,
+                BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = target.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_LCD_HRGB);
+
+        for (int bodies : BODY_COUNTS) {
+            createBodies(bodies);
+            measure("vector", bodies, rounds, g2d, RenderBenchmark::drawVector);
+            measure("sprite", bodies, rounds, g2d, RenderBenchmark::drawSprite);
+        }
+        g2d.dispose();
+    }
+
+    // Every fourth body is a mallet; about half of everything is moving fast
+    // enough to get a glow
+    private static void createBodies(int count) {
+        Random random = new Random(11);
+        xs = new float[count];
+        ys = new float[count];
+        vxs = new float[count];
+        vys = new float[count];
+        for (int i = 0; i < count; i++) {
+            xs[i] = Constants.TABLE_X + 40 + random.nextFloat() * (Constants.TABLE_WIDTH - 80);
+            ys[i] = Constants.TABLE_Y + 40 + random.nextFloat() * (Constants.TABLE_HEIGHT - 80);
+            boolean moving = random.nextBoolean();
+            vxs[i] = moving ? random.nextFloat() * 16 - 8 : 0;
+            vys[i] = moving ? 4 + random.nextFloat() * 4 : 0;
+        }
+    }
+
+    private static void drawVector(Graphics2D g2d, int i) {
+        if (i % 4 == 3) {
+            Mallet.renderVector(g2d, xs[i], ys[i], vxs[i], vys[i], Constants.MALLET_RADIUS, (i & 4) == 0);
+        } else {
+            Puck.renderVector(g2d, xs[i], ys[i], vxs[i], vys[i], Constants.PUCK_RADIUS);
+        }
+    }
+
+    private static void drawSprite(Graphics2D g2d, int i) {
+        if (i % 4 == 3) {
+            Mallet.render(g2d, xs[i], ys[i], vxs[i], vys[i], Constants.MALLET_RADIUS, (i & 4) == 0);
+        } else {
+            Puck.render(g2d, xs[i], ys[i], vxs[i], vys[i], Constants.PUCK_RADIUS);
+        }
+    }
+
+    private static void measure(String name, int bodies, int rounds, Graphics2D g2d, Draw draw) {
+        for (int r = 0; r < 3; r++) {
+            runRound(g2d, bodies, draw);
+        }
+
+        long[] times = new long[rounds];
+        for (int r = 0; r < rounds; r++) {
+            times[r] = runRound(g2d, bodies, draw);
+        }
+        Arrays.sort(times);
+
+        int frames = ENTITIES_PER_ROUND / bodies;
+        double nsPerEntity = (double) times[rounds / 2] / (frames * bodies);
+        double usPerFrame = (double) times[rounds / 2] / frames / 1000;
+        System.out.printf("%-7s %4d bodies %9.0f ns/entity %9.1f us/frame%n",
+                name, bodies, nsPerEntity, usPerFrame);
+    }
+
+    private static long runRound(Graphics2D g2d, int bodies, Draw draw) {
+        int frames = ENTITIES_PER_ROUND / bodies;
+        long start = System.nanoTime();
+        for (int f = 0; f < frames; f++) {
+            for (int i = 0; i < bodies; i++) {
+                draw.draw(g2d, i);
+            }
+        }
+        return System.nanoTime() - start;
+    }
+}
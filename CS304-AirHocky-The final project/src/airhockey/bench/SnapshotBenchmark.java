@@ -0,0 +1,99 @@
+package airhockey.bench;
+
+import airhockey.ai.AI;
+import airhockey.sim.Match;
+import airhockey.sim.MatchInput;
+import airhockey.sim.SnapshotRing;
+import airhockey.utils.Constants;
+
+import java.util.Arrays;
+
+// Cost of saving a Match into a SnapshotRing every tick and of restoring an
+// older tick, for a normal match and a chaos match, against the 240 Hz budget.
+// Each run first checks that a restore followed by the same steps reproduces
+// the original state exactly.
+// Usage: java -Djava.awt.headless=true airhockey.bench.SnapshotBenchmark
+public class SnapshotBenchmark {
+    private static final int ROUNDS = 7;
+    private static final int OPS_PER_ROUND = 200_000;
+    private static final float DT = 1.0f / 240;
+    private static final double TICK_BUDGET_NS = 1e9 / 240;
+
+    static long sink;
+
+    public static void main(String[] args) {
+        run("1 puck", 1);
+        run(Constants.CHAOS_PUCK_COUNT + " pucks", Constants.CHAOS_PUCK_COUNT);
+    }
+
+    private static void run(String name, int puckCount) {
+        Match match = new Match(new AI(3, true), new AI(3, false), puckCount, 1);
+        // Restores go into a second match of the same shape so the ring keeps following match
+        Match target = new Match(new AI(3, true), new AI(3, false), puckCount, 1);
+        MatchInput input = new MatchInput();
+        SnapshotRing ring = new SnapshotRing(match, Constants.SNAPSHOT_HISTORY);
+
+        for (int i = 0; i < ring.getCapacity(); i++) {
+            match.step(input, DT);
+            ring.save(match);
+        }
+        verifyReplay(match, target, ring, input);
+
+        // Warm-up rounds let the JIT compile the path before anything is timed
+        for (int r = 0; r < 3; r++) {
+            timeSaves(match, ring);
+            timeRestores(target, ring);
+        }
+
+        long[] saves = new long[ROUNDS];
+        long[] restores = new long[ROUNDS];
+        for (int r = 0; r < ROUNDS; r++) {
+            saves[r] = timeSaves(match, ring);
+            restores[r] = timeRestores(target, ring);
+        }
+        double saveNs = median(saves) / OPS_PER_ROUND;
+        double restoreNs = median(restores) / OPS_PER_ROUND;
+
+        System.out.printf("%-12s slot %4d floats + %2d longs | save %7.1f ns | restore %7.1f ns | %.3f%% of a 240 Hz tick%n",
+                name, ring.getFloatStride(), ring.getLongStride(), saveNs, restoreNs,
+                (saveNs + restoreNs) / TICK_BUDGET_NS * 100);
+    }
+
+    // Saves over the full ring, as the game does once per tick
+    private static long timeSaves(Match match, SnapshotRing ring) {
+        long start = System.nanoTime();
+        for (int i = 0; i < OPS_PER_ROUND; i++) {
+            ring.save(match);
+        }
+        sink += ring.getNewestTick();
+        return System.nanoTime() - start;
+    }
+
+    // Restores ticks spread across the whole history
+    private static long timeRestores(Match match, SnapshotRing ring) {
+        long oldest = ring.getOldestTick();
+        int span = ring.getSize();
+        long start = System.nanoTime();
+        for (int i = 0; i < OPS_PER_ROUND; i++) {
+            if (ring.restore(match, oldest + (i * 7) % span)) sink++;
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static void verifyReplay(Match match, Match target, SnapshotRing ring, MatchInput input) {
+        ring.restore(target, ring.getOldestTick());
+        while (target.getTicks() < match.getTicks()) {
+            target.step(input, DT);
+        }
+
+        if (target.checksum() != match.checksum()) {
+            throw new IllegalStateException("Replay from a restored snapshot diverged");
+        }
+    }
+
+    private static double median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
@@ -0,0 +1,190 @@
+package airhockey.bench;
+
+import airhockey.core.Mallet;
+import airhockey.core.Puck;
+import airhockey.physics.PhysicsEngine;
+import airhockey.utils.Constants;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Shots fast enough to tunnel through a mallet, a wall or a goal post when
+// collisions are only tested where the puck ends a tick. Each one is played
+// at every tick rate through PhysicsEngine.movePuck, and after each sweep the
+// puck must still be on the near side of every mallet, wall and goal post.
+// Exits with status 1 if any shot fails.
+// Usage: java -Djava.awt.headless=true airhockey.bench.TunnelingCheck
+public class TunnelingCheck {
+    private static final float SHOT_SPEED = Constants.MAX_SPEED * Constants.SPEED_BOOST;
+    private static final int SHOT_BASE_TICKS = 180; // 3 s of play per shot
+    private static final float TOLERANCE = 0.5f;     // Pixels of float error allowed at a contact
+
+    private static final float LEFT = Constants.TABLE_X;
+    private static final float RIGHT = Constants.TABLE_X + Constants.TABLE_WIDTH;
+    private static final float TOP = Constants.TABLE_Y;
+    private static final float BOTTOM = Constants.TABLE_Y + Constants.TABLE_HEIGHT;
+    private static final float CENTER_X = Constants.TABLE_X + Constants.TABLE_WIDTH / 2;
+    private static final float GOAL_LEFT = CENTER_X - Constants.GOAL_WIDTH / 2;
+    private static final float GOAL_RIGHT = CENTER_X + Constants.GOAL_WIDTH / 2;
+    private static final float[] POST_X = {GOAL_LEFT, GOAL_RIGHT, GOAL_LEFT, GOAL_RIGHT};
+    private static final float[] POST_Y = {TOP, TOP, BOTTOM, BOTTOM};
+
+    // Puck start and velocity direction, then both mallets' start and target
+    private static class Shot {
+        final String name;
+        final float puckX, puckY, directionX, directionY, speed;
+        final float[] mallet1, mallet2;
+
+        Shot(String name, float puckX, float puckY, float directionX, float directionY, float speed,
+             float[] mallet1, float[] mallet2) {
+            float length = (float)Math.sqrt(directionX * directionX + directionY * directionY);
+            this.name = name;
+            this.puckX = puckX;
+            this.puckY = puckY;
+            this.directionX = length > 0 ? directionX / length : 0;
+            this.directionY = length > 0 ? directionY / length : 0;
+            this.speed = speed;
+            this.mallet1 = mallet1;
+            this.mallet2 = mallet2;
+        }
+    }
+
+    public static void main(String[] args) {
+        float middle = TOP + Constants.TABLE_HEIGHT / 2;
+        float[] parked1 = {LEFT + 40, BOTTOM - 40, LEFT + 40, BOTTOM - 40};
+        float[] parked2 = {LEFT + 40, TOP + 40, LEFT + 40, TOP + 40};
+
+        List<Shot> shots = new ArrayList<>();
+        // Straight at the end wall beside the goal mouth, then back down the table
+        shots.add(new Shot("straight", GOAL_RIGHT + 80, middle, 0, -1, SHOT_SPEED, parked1, parked2));
+        // Diagonally into a corner, where two walls are hit within one tick
+        shots.add(new Shot("corner", RIGHT - 150, middle - 40, 1, -1, SHOT_SPEED, parked1, parked2));
+        // Into the corner of a goal post
+        shots.add(new Shot("post", GOAL_RIGHT + 200, TOP + 100, -200, -95, SHOT_SPEED, parked1, parked2));
+        // Head-on into a mallet charging the other way, closing faster per
+        // tick than the two are wide together
+        shots.add(new Shot("through mallet", CENTER_X, BOTTOM - 85, 0, 1, SHOT_SPEED,
+                new float[]{CENTER_X, BOTTOM - 35, CENTER_X, middle + 35}, parked2));
+        // A resting puck in the path of a mallet swept across the table
+        shots.add(new Shot("mallet swipe", CENTER_X, BOTTOM - 90, 0, 0, 0,
+                new float[]{LEFT + 40, BOTTOM - 90, RIGHT - 40, BOTTOM - 90}, parked2));
+        // The same swipe into a puck coming the other way
+        shots.add(new Shot("swipe into shot", CENTER_X + 100, BOTTOM - 90, -1, 0, SHOT_SPEED,
+                new float[]{LEFT + 40, BOTTOM - 90, RIGHT - 40, BOTTOM - 90}, parked2));
+
+        int failures = 0;
+        for (int tickRate : Constants.TICK_RATES) {
+            for (Shot shot : shots) {
+                String failure = play(shot, tickRate);
+                System.out.printf("%-16s %3d Hz  %s%n", shot.name, tickRate, failure == null ? "ok" : failure);
+                if (failure != null) failures++;
+            }
+        }
+
+        if (failures > 0) {
+            System.out.println(failures + " shot(s) tunnelled");
+            System.exit(1);
+        }
+        System.out.println("No shot tunnelled");
+    }
+
+    // Plays one shot the way Match.checkCollisions does; null if it stayed clear
+    private static String play(Shot shot, int tickRate) {
+        float dt = 1.0f / tickRate;
+        int ticks = SHOT_BASE_TICKS * tickRate / Constants.BASE_TICK_RATE;
+
+        Puck puck = new Puck(shot.puckX, shot.puckY);
+        puck.setVelocityX(shot.directionX * shot.speed);
+        puck.setVelocityY(shot.directionY * shot.speed);
+        Mallet[] mallets = {place(shot.mallet1, true), place(shot.mallet2, false)};
+
+        for (int tick = 0; tick < ticks; tick++) {
+            // Keep the puck at the fastest speed a boosted hit can reach
+            holdSpeed(puck);
+            for (Mallet mallet : mallets) {
+                mallet.update(dt);
+            }
+
+            float startX = puck.getX();
+            float startY = puck.getY();
+            PhysicsEngine.movePuck(puck, mallets, dt, null);
+
+            String failure = check(puck, mallets, startX, startY);
+            if (failure != null) return failure + " at tick " + tick;
+
+            // A goal ends the shot
+            if (puck.isInGoal(true) || puck.isInGoal(false)) return null;
+
+            for (Mallet mallet : mallets) {
+                if (PhysicsEngine.checkCollision(puck, mallet)) {
+                    PhysicsEngine.separate(puck, mallet);
+                }
+            }
+            PhysicsEngine.handleWallCollision(puck);
+        }
+        return null;
+    }
+
+    private static Mallet place(float[] placement, boolean isPlayer1) {
+        Mallet mallet = new Mallet(placement[0], placement[1], isPlayer1);
+        mallet.moveTo(placement[2], placement[3]);
+        return mallet;
+    }
+
+    private static void holdSpeed(Puck puck) {
+        float vx = puck.getVelocityX();
+        float vy = puck.getVelocityY();
+        float speed = (float)Math.sqrt(vx * vx + vy * vy);
+        if (speed > SHOT_SPEED) {
+            puck.setVelocityX(vx / speed * SHOT_SPEED);
+            puck.setVelocityY(vy / speed * SHOT_SPEED);
+        }
+    }
+
+    private static String check(Puck puck, Mallet[] mallets, float startX, float startY) {
+        float x = puck.getX();
+        float y = puck.getY();
+        float radius = puck.getRadius();
+
+        // Walls: the puck may only leave the table through a goal mouth
+        if (x - radius < LEFT - TOLERANCE || x + radius > RIGHT + TOLERANCE) {
+            return String.format("FAILED: through a side wall (x %.1f)", x);
+        }
+        boolean inMouth = x > GOAL_LEFT && x < GOAL_RIGHT;
+        if (!inMouth && (y - radius < TOP - TOLERANCE || y + radius > BOTTOM + TOLERANCE)) {
+            return String.format("FAILED: through an end wall (%.1f, %.1f)", x, y);
+        }
+
+        for (int i = 0; i < POST_X.length; i++) {
+            if (distance(x - POST_X[i], y - POST_Y[i]) < radius - TOLERANCE) {
+                return String.format("FAILED: into a goal post (%.1f, %.1f)", x, y);
+            }
+        }
+
+        // Mallets, seen from the mallet: the path over the tick must not reach
+        // its far half. A path that bounced off the mallet starts and ends
+        // outside the same tangent line, so the straight line between its ends
+        // stays clear of it. A puck already pinned inside the mallet at the
+        // start is left to the separate() fallback.
+        for (Mallet mallet : mallets) {
+            float reach = radius + mallet.getRadius() - TOLERANCE;
+            float sx = startX - mallet.getPrevX();
+            float sy = startY - mallet.getPrevY();
+            float wx = x - mallet.getX() - sx;
+            float wy = y - mallet.getY() - sy;
+            float lengthSq = wx * wx + wy * wy;
+            if (lengthSq == 0 || distance(sx, sy) < reach) continue;
+
+            // Closest approach to the mallet's centre; past it means past the middle
+            float along = -(sx * wx + sy * wy) / lengthSq;
+            if (along > 0 && along < 1 && distance(sx + wx * along, sy + wy * along) < reach) {
+                return String.format("FAILED: went through a mallet (%.1f, %.1f)", x, y);
+            }
+        }
+        return null;
+    }
+
+    private static float distance(float x, float y) {
+        return (float)Math.sqrt(x * x + y * y);
+    }
+}
@@ -1,13 +1,43 @@
 package airhockey.core;
 
 import airhockey.utils.Constants;
+import airhockey.utils.DirtyRegion;
+import airhockey.utils.RenderCache;
 import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
 
 public class HockeyTable {
     private float goalGlow = 0f;
     private boolean glowIncreasing = true;
     private float linePulse = 0f;
 
+    private static final int CENTER_LINE_PAD = 4;
+    private static final int SPARKLE_COUNT = 8;
+    private static final float SPARKLE_ORBIT = 450;
+
+    // What the last render used, for working out what the next one changes
+    private long renderedTime;
+    private float renderedLinePulse;
+    private float renderedGoalGlow;
+    private boolean renderedDecorations = true;
+
+    // Static parts of the table, rendered once per theme at the render scale
+    // so they land pixel for pixel in the renderer's surface
+    private static final float SCALE = Constants.RENDER_SCALE;
+    private static final int LAYER_WIDTH = Math.round(Constants.WINDOW_WIDTH * SCALE);
+    private static final int LAYER_HEIGHT = Math.round(Constants.WINDOW_HEIGHT * SCALE);
+    private VolatileImage volatileLayer;
+    private BufferedImage bufferedLayer;
+    private Constants.Theme layerTheme;
+
+    // Overlay resources, rebuilt only when the animated value behind them changes
+    private BufferedImage centerLine;
+    private Composite centerLineComposite;
+    private int centerLineAlpha;
+    private BasicStroke circleStroke;
+    private float circleStrokePulse;
+
     public void update() {
         // Animate goal glow
         if (glowIncreasing) {
@@ -29,12 +59,161 @@ public class HockeyTable {
     }
 
     public void render(Graphics2D g2d) {
+        render(g2d, System.currentTimeMillis());
+    }
+
+    // time drives the sparkles; passing it in lets the renderer know where
+    // they will be drawn before it paints
+    public void render(Graphics2D g2d, long time) {
+        render(g2d, time, true);
+    }
+
+    // decorations off leaves out the sparkles, for the lower quality tiers
+    public void render(Graphics2D g2d, long time, boolean decorations) {
+        renderedTime = time;
+        renderedDecorations = decorations;
+        renderedLinePulse = linePulse;
+        renderedGoalGlow = goalGlow;
+
+        drawStaticLayer(g2d);
+
+        // Draw inner border with pulse effect
+        int pulseAlpha = 150 + (int)(linePulse * 105);
+        g2d.setColor(RenderCache.color(180, 180, 200, pulseAlpha));
+        g2d.setStroke(RenderCache.stroke(3));
+        g2d.drawRect(Constants.TABLE_X + 10, Constants.TABLE_Y + 10,
+                Constants.TABLE_WIDTH - 20, Constants.TABLE_HEIGHT - 20);
+
+        // Draw center line with glow - the dashed stroke is pre-rendered once
+        // and only faded here
+        int centerY = Constants.TABLE_Y + Constants.TABLE_HEIGHT / 2;
+        Composite composite = g2d.getComposite();
+        g2d.setComposite(centerLineComposite(pulseAlpha));
+        BufferedImage line = centerLineImage();
+        int lineX = Constants.TABLE_X + 20 - CENTER_LINE_PAD;
+        int lineY = centerY - CENTER_LINE_PAD;
+        g2d.drawImage(line, lineX, lineY, lineX + Constants.TABLE_WIDTH - 40 + CENTER_LINE_PAD * 2,
+                lineY + CENTER_LINE_PAD * 2, 0, 0, line.getWidth(), line.getHeight(), null);
+        g2d.setComposite(composite);
+
+        // Draw center circle with animation
+        if (circleStroke == null || circleStrokePulse != linePulse) {
+            circleStroke = new BasicStroke(3 + linePulse);
+            circleStrokePulse = linePulse;
+        }
+        g2d.setStroke(circleStroke);
+        g2d.setColor(RenderCache.color(255, 255, 255, pulseAlpha));
+        int circleSize = 120;
+        g2d.drawOval(
+                Constants.WINDOW_WIDTH/2 - circleSize/2,
+                centerY - circleSize/2,
+                circleSize, circleSize
+        );
+
+        // Draw goals with animated glow
+        int glowAlpha = 100 + (int)(goalGlow * 155);
+        g2d.setColor(RenderCache.color(255, 215, 0, glowAlpha));
+
+        // Top goal glow
+        g2d.fillRect(Constants.WINDOW_WIDTH/2 - Constants.GOAL_WIDTH/2 - 15,
+                Constants.TABLE_Y - 10,
+                Constants.GOAL_WIDTH + 30, 20);
+
+        // Bottom goal glow
+        g2d.fillRect(Constants.WINDOW_WIDTH/2 - Constants.GOAL_WIDTH/2 - 15,
+                Constants.TABLE_Y + Constants.TABLE_HEIGHT - 10,
+                Constants.GOAL_WIDTH + 30, 20);
+
+        // Draw goal areas with pulse
+        g2d.setStroke(RenderCache.stroke(2));
+        g2d.setColor(RenderCache.color(255, 255, 255, 50 + (int)(goalGlow * 50)));
+
+        // Top goal area
+        g2d.drawRect(Constants.WINDOW_WIDTH/2 - Constants.GOAL_WIDTH/2 - 20,
+                Constants.TABLE_Y,
+                Constants.GOAL_WIDTH + 40,
+                80);
+
+        // Bottom goal area
+        g2d.drawRect(Constants.WINDOW_WIDTH/2 - Constants.GOAL_WIDTH/2 - 20,
+                Constants.TABLE_Y + Constants.TABLE_HEIGHT - 80,
+                Constants.GOAL_WIDTH + 40,
+                80);
+
+        // Draw decorative elements
+        if (decorations) {
+            drawDecorativeElements(g2d, time);
+        }
+    }
+
+    // Adds what changes between the last render and one at time: the
+    // sparkles if they are drawn, and the whole table if the pulse or glow
+    // has moved on
+    public void addDirtyRegions(DirtyRegion dirty, long time) {
+        if (linePulse != renderedLinePulse || goalGlow != renderedGoalGlow) {
+            dirty.add(Constants.TABLE_X - 25, Constants.TABLE_Y - 25,
+                    Constants.TABLE_WIDTH + 50, Constants.TABLE_HEIGHT + 50);
+        }
+        if (!renderedDecorations) return;
+
+        for (int i = 0; i < SPARKLE_COUNT; i++) {
+            dirty.add(sparkleX(renderedTime, i) - 1, sparkleY(renderedTime, i) - 1, 7, 7);
+            dirty.add(sparkleX(time, i) - 1, sparkleY(time, i) - 1, 7, 7);
+        }
+    }
+
+    // Blits the pre-rendered table, repainting it first if the theme changed
+    // or the accelerated copy was lost
+    private void drawStaticLayer(Graphics2D g2d) {
+        boolean stale = layerTheme != Constants.CURRENT_THEME;
+        layerTheme = Constants.CURRENT_THEME;
+
+        GraphicsConfiguration gc = g2d.getDeviceConfiguration();
+        if (bufferedLayer == null && gc != null) {
+            do {
+                int status = volatileLayer == null
+                        ? VolatileImage.IMAGE_INCOMPATIBLE : volatileLayer.validate(gc);
+                if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+                    if (volatileLayer != null) volatileLayer.flush();
+                    volatileLayer = gc.createCompatibleVolatileImage(LAYER_WIDTH, LAYER_HEIGHT);
+                    if (volatileLayer == null) break;
+                }
+                if (status != VolatileImage.IMAGE_OK || stale) {
+                    paintStaticLayer(volatileLayer.createGraphics());
+                    stale = false;
+                }
+                g2d.drawImage(volatileLayer, 0, 0, Constants.WINDOW_WIDTH, Constants.WINDOW_HEIGHT, null);
+            } while (volatileLayer.contentsLost());
+
+            if (volatileLayer != null) return;
+        }
+
+        // No accelerated surface available - keep a plain image instead
+        if (bufferedLayer == null || stale) {
+            bufferedLayer = new BufferedImage(LAYER_WIDTH, LAYER_HEIGHT, BufferedImage.TYPE_INT_RGB);
+            paintStaticLayer(bufferedLayer.createGraphics());
+        }
+        g2d.drawImage(bufferedLayer, 0, 0, Constants.WINDOW_WIDTH, Constants.WINDOW_HEIGHT, null);
+    }
+
+    // Everything that only depends on the theme: background, shadow, surface,
+    // borders, corner circles and goal lines
+    private void paintStaticLayer(Graphics2D g2d) {
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setRenderingHint(RenderingHints.KEY_RENDERING,
+                RenderingHints.VALUE_RENDER_QUALITY);
+        g2d.scale(SCALE, SCALE);
+
+        g2d.setColor(Constants.BACKGROUND_COLOR);
+        g2d.fillRect(0, 0, Constants.WINDOW_WIDTH, Constants.WINDOW_HEIGHT);
+
         // Draw table shadow
         g2d.setColor(new Color(0, 0, 0, 100));
         g2d.fillRect(Constants.TABLE_X + 8, Constants.TABLE_Y + 8,
                 Constants.TABLE_WIDTH, Constants.TABLE_HEIGHT);
 
-        // Draw table surface with animated gradient
+        // Draw table surface with gradient
         GradientPaint tableGradient = new GradientPaint(
                 Constants.TABLE_X, Constants.TABLE_Y,
                 Constants.getTableColor().brighter(),
@@ -56,31 +235,9 @@ public class HockeyTable {
         g2d.drawRect(Constants.TABLE_X, Constants.TABLE_Y,
                 Constants.TABLE_WIDTH, Constants.TABLE_HEIGHT);
 
-        // Draw inner border with pulse effect
-        g2d.setColor(new Color(180, 180, 200, (int)(150 + linePulse * 105)));
-        g2d.setStroke(new BasicStroke(3));
-        g2d.drawRect(Constants.TABLE_X + 10, Constants.TABLE_Y + 10,
-                Constants.TABLE_WIDTH - 20, Constants.TABLE_HEIGHT - 20);
-
-        // Draw center line with glow
-        int centerY = Constants.TABLE_Y + Constants.TABLE_HEIGHT / 2;
-        g2d.setStroke(new BasicStroke(4, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER,
-                10, new float[]{15, 10}, 0));
-        g2d.setColor(new Color(255, 255, 255, (int)(150 + linePulse * 105)));
-        g2d.drawLine(Constants.TABLE_X + 20, centerY,
-                Constants.TABLE_X + Constants.TABLE_WIDTH - 20, centerY);
-
-        // Draw center circle with animation
-        g2d.setStroke(new BasicStroke(3 + linePulse));
-        int circleSize = 120;
-        g2d.drawOval(
-                Constants.WINDOW_WIDTH/2 - circleSize/2,
-                centerY - circleSize/2,
-                circleSize, circleSize
-        );
-
         // Draw corner circles with glow
         int cornerRadius = 40;
+        g2d.setStroke(new BasicStroke(3));
         g2d.setColor(new Color(255, 255, 255, 100));
         g2d.drawOval(Constants.TABLE_X - cornerRadius/2, Constants.TABLE_Y - cornerRadius/2,
                 cornerRadius, cornerRadius);
@@ -93,21 +250,8 @@ public class HockeyTable {
                 Constants.TABLE_Y + Constants.TABLE_HEIGHT - cornerRadius/2,
                 cornerRadius, cornerRadius);
 
-        // Draw goals with animated glow
-        int glowAlpha = 100 + (int)(goalGlow * 155);
-        g2d.setColor(new Color(255, 215, 0, glowAlpha));
-
-        // Top goal glow
-        g2d.fillRect(Constants.WINDOW_WIDTH/2 - Constants.GOAL_WIDTH/2 - 15,
-                Constants.TABLE_Y - 10,
-                Constants.GOAL_WIDTH + 30, 20);
-
-        // Bottom goal glow
-        g2d.fillRect(Constants.WINDOW_WIDTH/2 - Constants.GOAL_WIDTH/2 - 15,
-                Constants.TABLE_Y + Constants.TABLE_HEIGHT - 10,
-                Constants.GOAL_WIDTH + 30, 20);
-
-        // Draw goal lines with highlight
+        // Draw goal lines with highlight (same colour as the glow drawn over
+        // them each frame, so the order of the two does not matter)
         g2d.setColor(Constants.GOAL_COLOR);
         g2d.setStroke(new BasicStroke(6));
 
@@ -127,39 +271,53 @@ public class HockeyTable {
                 Constants.TABLE_Y + Constants.TABLE_HEIGHT
         );
 
-        // Draw goal areas with pulse
-        g2d.setStroke(new BasicStroke(2));
-        g2d.setColor(new Color(255, 255, 255, 50 + (int)(goalGlow * 50)));
-
-        // Top goal area
-        g2d.drawRect(Constants.WINDOW_WIDTH/2 - Constants.GOAL_WIDTH/2 - 20,
-                Constants.TABLE_Y,
-                Constants.GOAL_WIDTH + 40,
-                80);
+        g2d.dispose();
+    }
 
-        // Bottom goal area
-        g2d.drawRect(Constants.WINDOW_WIDTH/2 - Constants.GOAL_WIDTH/2 - 20,
-                Constants.TABLE_Y + Constants.TABLE_HEIGHT - 80,
-                Constants.GOAL_WIDTH + 40,
-                80);
+    // The dashed center line at full opacity, faded per frame with a composite
+    private BufferedImage centerLineImage() {
+        if (centerLine == null) {
+            int length = Constants.TABLE_WIDTH - 40;
+            centerLine = new BufferedImage(Math.round((length + CENTER_LINE_PAD * 2) * SCALE),
+                    Math.round(CENTER_LINE_PAD * 2 * SCALE), BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g2d = centerLine.createGraphics();
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                    RenderingHints.VALUE_ANTIALIAS_ON);
+            g2d.scale(SCALE, SCALE);
+            g2d.setStroke(new BasicStroke(4, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER,
+                    10, new float[]{15, 10}, 0));
+            g2d.setColor(Color.WHITE);
+            g2d.drawLine(CENTER_LINE_PAD, CENTER_LINE_PAD, CENTER_LINE_PAD + length, CENTER_LINE_PAD);
+            g2d.dispose();
+        }
+        return centerLine;
+    }
 
-        // Draw decorative elements
-        drawDecorativeElements(g2d);
+    private Composite centerLineComposite(int alpha) {
+        if (centerLineComposite == null || centerLineAlpha != alpha) {
+            centerLineComposite = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha / 255f);
+            centerLineAlpha = alpha;
+        }
+        return centerLineComposite;
     }
 
-    private void drawDecorativeElements(Graphics2D g2d) {
+    private void drawDecorativeElements(Graphics2D g2d, long time) {
         // Draw sparkle effects around table
-        long time = System.currentTimeMillis();
-        g2d.setColor(new Color(255, 255, 255, 100));
-
-        for (int i = 0; i < 8; i++) {
-            float angle = (float)(time * 0.001 + i * Math.PI / 4);
-            float radius = 450;
-            int x = (int)(Constants.WINDOW_WIDTH/2 + Math.cos(angle) * radius);
-            int y = (int)(Constants.TABLE_Y + Constants.TABLE_HEIGHT/2 + Math.sin(angle) * radius * 0.6);
+        g2d.setColor(RenderCache.color(255, 255, 255, 100));
 
+        for (int i = 0; i < SPARKLE_COUNT; i++) {
             float sparkleSize = 3 + (float)Math.sin(time * 0.002 + i) * 2;
-            g2d.fillOval(x, y, (int)sparkleSize, (int)sparkleSize);
+            g2d.fillOval(sparkleX(time, i), sparkleY(time, i), (int)sparkleSize, (int)sparkleSize);
         }
     }
+
+    private static int sparkleX(long time, int i) {
+        float angle = (float)(time * 0.001 + i * Math.PI / 4);
+        return (int)(Constants.WINDOW_WIDTH/2 + Math.cos(angle) * SPARKLE_ORBIT);
+    }
+
+    private static int sparkleY(long time, int i) {
+        float angle = (float)(time * 0.001 + i * Math.PI / 4);
+        return (int)(Constants.TABLE_Y + Constants.TABLE_HEIGHT/2 + Math.sin(angle) * SPARKLE_ORBIT * 0.6);
+    }
 }
\ No newline at end of file
@@ -1,19 +1,37 @@
 package airhockey.core;
 
 import airhockey.utils.Constants;
+import airhockey.utils.RenderCache;
+import airhockey.utils.SpriteAtlas;
+import airhockey.utils.StateBuffer;
 import java.awt.*;
 
-public class Mallet {
+@SuppressWarnings("strictfp")
+public strictfp class Mallet {
     private float x, y;
+    private float prevX, prevY; // Position at the start of the current tick
     private float targetX, targetY;
     private float velocityX, velocityY;
     private int radius;
     private boolean isPlayer1;
     private boolean mouseControl;
 
+    private static final int SPRITE_GLOW = 3;
+    private static final int SPRITE_BODY = 4;
+
+    // Per-tick factors, recomputed only when the step changes. The gains are
+    // the share of the gap a 60 Hz tick closes, compounded over the step so
+    // the mallet moves alike at every tick rate.
+    private float factorStep = -1;
+    private float dampingFactor;
+    private float approachFactor;
+    private float sensitivityFactor;
+
     public Mallet(float x, float y, boolean isPlayer1) {
         this.x = x;
         this.y = y;
+        this.prevX = x;
+        this.prevY = y;
         this.targetX = x;
         this.targetY = y;
         this.velocityX = 0;
@@ -23,28 +41,43 @@ public class Mallet {
         this.mouseControl = isPlayer1; // Player 1 uses mouse by default
     }
 
-    public void update() {
+    public void update(float dt) {
+        float step = dt * Constants.BASE_TICK_RATE;
+        prevX = x;
+        prevY = y;
+
         // Smooth movement towards target
         float dx = targetX - x;
         float dy = targetY - y;
         float distance = (float)Math.sqrt(dx * dx + dy * dy);
 
+        if (step != factorStep) {
+            factorStep = step;
+            dampingFactor = (float)StrictMath.pow(Constants.MALLET_DAMPING, step);
+            approachFactor = 1 - (float)StrictMath.pow(1 - Constants.MALLET_APPROACH, step);
+            sensitivityFactor = 1 - (float)StrictMath.pow(1 - Constants.MOUSE_SENSITIVITY, step);
+        }
+
         if (distance > 1) {
             float speed = isPlayer1 ?
-                    (mouseControl ? Constants.MOUSE_SENSITIVITY * distance : Constants.KEYBOARD_SPEED) :
+                    (mouseControl ? sensitivityFactor * distance / step : Constants.KEYBOARD_SPEED) :
                     Constants.AI_SPEED;
 
-            speed = Math.min(speed, distance * 0.5f);
+            speed = Math.min(speed, approachFactor * distance / step);
             velocityX = (dx / distance) * speed;
             velocityY = (dy / distance) * speed;
         } else {
-            velocityX *= 0.9f;
-            velocityY *= 0.9f;
+            velocityX *= dampingFactor;
+            velocityY *= dampingFactor;
+
+            // Stop outright instead of decaying into denormals, which are very slow
+            if (Math.abs(velocityX) < 0.01f) velocityX = 0;
+            if (Math.abs(velocityY) < 0.01f) velocityY = 0;
         }
 
         // Update position
-        x += velocityX;
-        y += velocityY;
+        x += velocityX * step;
+        y += velocityY * step;
 
         // Apply boundaries
         enforceBoundaries();
@@ -84,38 +117,89 @@ public class Mallet {
     }
 
     public void render(Graphics2D g2d) {
+        render(g2d, x, y, velocityX, velocityY, radius, isPlayer1);
+    }
+
+    // Draws a mallet from plain values so the renderer can work from a snapshot.
+    // Both layers are sprites, painted once by paintGlow/paintBody.
+    public static void render(Graphics2D g2d, float x, float y, float velocityX, float velocityY,
+                              int radius, boolean isPlayer1) {
+        render(g2d, x, y, velocityX, velocityY, radius, isPlayer1, true);
+    }
+
+    // withGlow off leaves out the movement glow, for the lower quality tiers
+    public static void render(Graphics2D g2d, float x, float y, float velocityX, float velocityY,
+                              int radius, boolean isPlayer1, boolean withGlow) {
+        SpriteAtlas atlas = SpriteAtlas.shared();
+        Color malletColor = isPlayer1 ? Constants.PLAYER1_COLOR : Constants.PLAYER2_COLOR;
+
         // Draw glow effect when moving
-        if (Math.abs(velocityX) > 0.5f || Math.abs(velocityY) > 0.5f) {
-            Color glowColor = isPlayer1 ?
-                    new Color(255, 100, 100, 100) :
-                    new Color(100, 150, 255, 100);
-            g2d.setColor(glowColor);
-            g2d.fillOval((int)x - radius - 5, (int)y - radius - 5,
-                    radius * 2 + 10, radius * 2 + 10);
+        if (withGlow && isMoving(velocityX, velocityY)) {
+            long key = SpriteAtlas.key(SPRITE_GLOW, malletColor.getRGB(), radius, 0);
+            SpriteAtlas.Sprite glow = atlas.find(key);
+            if (glow == null) {
+                int half = radius + 6;
+                glow = atlas.add(key, half, half, half * 2, half * 2, g -> paintGlow(g, radius, isPlayer1));
+            }
+            atlas.draw(g2d, glow, (int)x, (int)y);
         }
 
+        long key = SpriteAtlas.key(SPRITE_BODY, malletColor.getRGB(), radius, isPlayer1 ? 1 : 2);
+        SpriteAtlas.Sprite body = atlas.find(key);
+        if (body == null) {
+            int half = radius + 3;
+            body = atlas.add(key, half, half, half * 2, half * 2, g -> paintBody(g, radius, isPlayer1));
+        }
+        atlas.draw(g2d, body, (int)x, (int)y);
+    }
+
+    // The same picture drawn with vector calls each time, as before the
+    // sprites; kept for comparison in RenderBenchmark
+    public static void renderVector(Graphics2D g2d, float x, float y, float velocityX, float velocityY,
+                                    int radius, boolean isPlayer1) {
+        g2d.translate((int)x, (int)y);
+        if (isMoving(velocityX, velocityY)) {
+            paintGlow(g2d, radius, isPlayer1);
+        }
+        paintBody(g2d, radius, isPlayer1);
+        g2d.translate(-(int)x, -(int)y);
+    }
+
+    private static boolean isMoving(float velocityX, float velocityY) {
+        return Math.abs(velocityX) > 0.5f || Math.abs(velocityY) > 0.5f;
+    }
+
+    private static void paintGlow(Graphics2D g2d, int radius, boolean isPlayer1) {
+        Color glowColor = isPlayer1 ?
+                RenderCache.color(255, 100, 100, 100) :
+                RenderCache.color(100, 150, 255, 100);
+        g2d.setColor(glowColor);
+        g2d.fillOval(-radius - 5, -radius - 5,
+                radius * 2 + 10, radius * 2 + 10);
+    }
+
+    // Mallet centered on the origin
+    private static void paintBody(Graphics2D g2d, int radius, boolean isPlayer1) {
         // Draw mallet
         Color malletColor = isPlayer1 ? Constants.PLAYER1_COLOR : Constants.PLAYER2_COLOR;
         g2d.setColor(malletColor);
-        g2d.fillOval((int)x - radius, (int)y - radius,
-                radius * 2, radius * 2);
+        g2d.fillOval(-radius, -radius, radius * 2, radius * 2);
 
         // Draw border
         g2d.setColor(Color.WHITE);
-        g2d.setStroke(new BasicStroke(3));
-        g2d.drawOval((int)x - radius, (int)y - radius,
-                radius * 2, radius * 2);
+        g2d.setStroke(RenderCache.stroke(3));
+        g2d.drawOval(-radius, -radius, radius * 2, radius * 2);
 
         // Draw center dot
         g2d.setColor(Color.WHITE);
-        g2d.fillOval((int)x - 5, (int)y - 5, 10, 10);
+        g2d.fillOval(-5, -5, 10, 10);
 
         // Draw player label
         g2d.setFont(Constants.getFont(14, true));
         String label = isPlayer1 ? "P1" : "P2";
         FontMetrics fm = g2d.getFontMetrics();
         int labelWidth = fm.stringWidth(label);
-        g2d.drawString(label, (int)x - labelWidth/2, (int)y + 5);
+        g2d.drawString(label, -labelWidth/2, 5);
     }
 
     // Movement methods
@@ -136,9 +220,36 @@ public class Mallet {
         this.mouseControl = false;
     }
 
+    // Snapshot support - the same field order on save and restore
+    public void saveState(StateBuffer out) {
+        out.putFloat(x);
+        out.putFloat(y);
+        out.putFloat(prevX);
+        out.putFloat(prevY);
+        out.putFloat(targetX);
+        out.putFloat(targetY);
+        out.putFloat(velocityX);
+        out.putFloat(velocityY);
+        out.putBoolean(mouseControl);
+    }
+
+    public void restoreState(StateBuffer in) {
+        x = in.getFloat();
+        y = in.getFloat();
+        prevX = in.getFloat();
+        prevY = in.getFloat();
+        targetX = in.getFloat();
+        targetY = in.getFloat();
+        velocityX = in.getFloat();
+        velocityY = in.getFloat();
+        mouseControl = in.getBoolean();
+    }
+
     // Getters
     public float getX() { return x; }
     public float getY() { return y; }
+    public float getPrevX() { return prevX; }
+    public float getPrevY() { return prevY; }
     public float getVelocityX() { return velocityX; }
     public float getVelocityY() { return velocityY; }
     public int getRadius() { return radius; }
@@ -146,7 +257,7 @@ public class Mallet {
     public boolean isMouseControl() { return mouseControl; }
 
     // Setters
-    public void setX(float x) { this.x = x; this.targetX = x; }
-    public void setY(float y) { this.y = y; this.targetY = y; }
+    public void setX(float x) { this.x = x; this.prevX = x; this.targetX = x; }
+    public void setY(float y) { this.y = y; this.prevY = y; this.targetY = y; }
     public void setMouseControl(boolean mouseControl) { this.mouseControl = mouseControl; }
 }
\ No newline at end of file
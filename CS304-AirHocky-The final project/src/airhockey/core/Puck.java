@@ -1,13 +1,25 @@
 package airhockey.core;
 
 import airhockey.utils.Constants;
+import airhockey.utils.RenderCache;
+import airhockey.utils.SpriteAtlas;
+import airhockey.utils.StateBuffer;
 import java.awt.*;
 
-public class Puck {
+@SuppressWarnings("strictfp")
+public strictfp class Puck {
     private float x, y;
     private float velocityX, velocityY;
     private int radius;
 
+    private static final int SPRITE_GLOW = 1;
+    private static final int SPRITE_BODY = 2;
+    private static final int GLOW_STEP = 8;
+
+    // Math.pow is costly and the step only changes with the tick rate
+    private float frictionStep = -1;
+    private float frictionFactor;
+
     public Puck(float x, float y) {
         this.x = x;
         this.y = y;
@@ -16,18 +28,23 @@ public class Puck {
         this.radius = Constants.PUCK_RADIUS;
     }
 
-    public void update() {
-        // Apply velocity
-        x += velocityX;
-        y += velocityY;
+    // Position is advanced by PhysicsEngine.movePuck so impacts along the path are found
+    public void update(float dt) {
+        // Velocities are in pixels per base tick
+        float step = dt * Constants.BASE_TICK_RATE;
 
         // Apply friction
-        velocityX *= Constants.FRICTION;
-        velocityY *= Constants.FRICTION;
+        if (step != frictionStep) {
+            frictionStep = step;
+            frictionFactor = (float)StrictMath.pow(Constants.FRICTION, step);
+        }
+        velocityX *= frictionFactor;
+        velocityY *= frictionFactor;
 
         // Cap maximum speed
-        float speed = (float)Math.sqrt(velocityX * velocityX + velocityY * velocityY);
-        if (speed > Constants.MAX_SPEED) {
+        float speedSq = velocityX * velocityX + velocityY * velocityY;
+        if (speedSq > Constants.MAX_SPEED * Constants.MAX_SPEED) {
+            float speed = (float)Math.sqrt(speedSq);
             velocityX = (velocityX / speed) * Constants.MAX_SPEED;
             velocityY = (velocityY / speed) * Constants.MAX_SPEED;
         }
@@ -38,46 +55,96 @@ public class Puck {
     }
 
     public void render(Graphics2D g2d) {
+        render(g2d, x, y, velocityX, velocityY, radius);
+    }
+
+    // Draws a puck from plain values so the renderer can work from a snapshot.
+    // Both layers are sprites, painted once by paintGlow/paintBody.
+    public static void render(Graphics2D g2d, float x, float y, float velocityX, float velocityY, int radius) {
+        render(g2d, x, y, velocityX, velocityY, radius, true);
+    }
+
+    // withGlow off leaves out the speed glow, for the lower quality tiers
+    public static void render(Graphics2D g2d, float x, float y, float velocityX, float velocityY, int radius,
+                              boolean withGlow) {
+        SpriteAtlas atlas = SpriteAtlas.shared();
+
         // Draw glow effect when moving fast
+        int glowAlpha = withGlow ? glowAlpha(velocityX, velocityY) : 0;
+        if (glowAlpha > 0) {
+            long key = SpriteAtlas.key(SPRITE_GLOW, 0xFFFFC8, radius, glowAlpha);
+            SpriteAtlas.Sprite glow = atlas.find(key);
+            if (glow == null) {
+                int half = radius + 9;
+                glow = atlas.add(key, half, half, half * 2, half * 2, g -> paintGlow(g, radius, glowAlpha));
+            }
+            atlas.draw(g2d, glow, (int)x, (int)y);
+        }
+
+        long key = SpriteAtlas.key(SPRITE_BODY, 0, radius, 0);
+        SpriteAtlas.Sprite body = atlas.find(key);
+        if (body == null) {
+            int half = radius + 3;
+            body = atlas.add(key, half, half, half * 2, half * 2, g -> paintBody(g, radius));
+        }
+        atlas.draw(g2d, body, (int)x, (int)y);
+    }
+
+    // The same picture drawn with vector calls each time, as before the
+    // sprites; kept for comparison in RenderBenchmark
+    public static void renderVector(Graphics2D g2d, float x, float y, float velocityX, float velocityY, int radius) {
+        int glowAlpha = glowAlpha(velocityX, velocityY);
+        g2d.translate((int)x, (int)y);
+        if (glowAlpha > 0) {
+            paintGlow(g2d, radius, glowAlpha);
+        }
+        paintBody(g2d, radius);
+        g2d.translate(-(int)x, -(int)y);
+    }
+
+    // Glow alpha for this speed (0 for none), in steps of GLOW_STEP so only a
+    // handful of glow sprites exist
+    private static int glowAlpha(float velocityX, float velocityY) {
         float speed = (float)Math.sqrt(velocityX * velocityX + velocityY * velocityY);
+        if (speed <= 2) return 0;
 
         int alphaValue = (int)(Math.min(speed, 10) * 20);
         alphaValue = Math.max(0, Math.min(255, alphaValue));
+        return alphaValue / GLOW_STEP * GLOW_STEP;
+    }
 
-        if (speed > 2) {
-            Color glowColor = new Color(255, 255, 200, alphaValue);
-            g2d.setColor(glowColor);
-            g2d.fillOval((int)x - radius - 8, (int)y - radius - 8,
-                    radius * 2 + 16, radius * 2 + 16);
-        }
+    private static void paintGlow(Graphics2D g2d, int radius, int alpha) {
+        g2d.setColor(RenderCache.color(255, 255, 200, alpha));
+        g2d.fillOval(-radius - 8, -radius - 8,
+                radius * 2 + 16, radius * 2 + 16);
+    }
 
+    // Puck centered on the origin
+    private static void paintBody(Graphics2D g2d, int radius) {
         // Draw puck with gradient effect
-        GradientPaint gradient = new GradientPaint(
-                (int)x - radius, (int)y - radius, new Color(60, 60, 60),
-                (int)x + radius, (int)y + radius, new Color(30, 30, 30)
+        GradientPaint gradient = RenderCache.gradient(
+                -radius, -radius, RenderCache.color(60, 60, 60),
+                radius, radius, RenderCache.color(30, 30, 30)
         );
         g2d.setPaint(gradient);
-        g2d.fillOval((int)x - radius, (int)y - radius,
-                radius * 2, radius * 2);
+        g2d.fillOval(-radius, -radius, radius * 2, radius * 2);
 
         // Draw outer ring
-        g2d.setColor(new Color(150, 150, 150));
-        g2d.setStroke(new BasicStroke(3));
-        g2d.drawOval((int)x - radius, (int)y - radius,
-                radius * 2, radius * 2);
+        g2d.setColor(RenderCache.color(150, 150, 150));
+        g2d.setStroke(RenderCache.stroke(3));
+        g2d.drawOval(-radius, -radius, radius * 2, radius * 2);
 
         // Draw inner circle
-        g2d.setColor(new Color(220, 220, 220));
-        g2d.fillOval((int)x - radius/2, (int)y - radius/2,
-                radius, radius);
+        g2d.setColor(RenderCache.color(220, 220, 220));
+        g2d.fillOval(-radius/2, -radius/2, radius, radius);
 
         // Draw puck number
         g2d.setColor(Color.WHITE);
-        g2d.setFont(new Font("Arial", Font.BOLD, 14));
+        g2d.setFont(RenderCache.font("Arial", Font.BOLD, 14));
         String num = "●";
         FontMetrics fm = g2d.getFontMetrics();
         int numWidth = fm.stringWidth(num);
-        g2d.drawString(num, (int)x - numWidth/2, (int)y + 5);
+        g2d.drawString(num, -numWidth/2, 5);
     }
 
     public boolean isInGoal(boolean topGoal) {
@@ -99,6 +166,21 @@ public class Puck {
         this.velocityY = 0;
     }
 
+    // Snapshot support - the same field order on save and restore
+    public void saveState(StateBuffer out) {
+        out.putFloat(x);
+        out.putFloat(y);
+        out.putFloat(velocityX);
+        out.putFloat(velocityY);
+    }
+
+    public void restoreState(StateBuffer in) {
+        x = in.getFloat();
+        y = in.getFloat();
+        velocityX = in.getFloat();
+        velocityY = in.getFloat();
+    }
+
     // Getters
     public float getX() { return x; }
     public float getY() { return y; }
@@ -0,0 +1,75 @@
+package airhockey.game;
+
+import airhockey.utils.Constants;
+
+import java.awt.*;
+import java.awt.image.BufferStrategy;
+
+// Active-rendering backend: a Canvas with a page-flipping or blitting
+// BufferStrategy, drawn directly by the simulation thread on each frame
+// deadline. Nothing goes through the RepaintManager or the EDT. The scene
+// itself is drawn by the same GameRenderer code the Swing backend uses, into
+// the same internal-resolution surface, and scaled to the Canvas.
+public class CanvasRenderer extends Canvas implements RenderBackend {
+    private static final long serialVersionUID = 1L;
+
+    private final GameRenderer scene;
+    private BufferStrategy strategy;
+
+    public CanvasRenderer(GameRenderer scene) {
+        this.scene = scene;
+        setPreferredSize(new Dimension(Constants.WINDOW_WIDTH, Constants.WINDOW_HEIGHT));
+        setBackground(Constants.BACKGROUND_COLOR);
+        setIgnoreRepaint(true);
+        setFocusable(true);
+    }
+
+    @Override
+    public void presentFrame() {
+        if (!isShowing()) return;
+        if (strategy == null) {
+            createBufferStrategy(Constants.CANVAS_BUFFERS);
+            strategy = getBufferStrategy();
+        }
+
+        // The scene goes into the surface once; the loops follow the
+        // BufferStrategy contract around the scaled copy to the back buffer:
+        // redo it if the back buffer was restored while copying, and again if
+        // it was lost before show
+        scene.renderFrame(getGraphicsConfiguration());
+        do {
+            do {
+                Graphics2D g2d = (Graphics2D) strategy.getDrawGraphics();
+                try {
+                    scene.presentSurface(g2d, getWidth(), getHeight());
+                } finally {
+                    g2d.dispose();
+                }
+            } while (strategy.contentsRestored());
+            strategy.show();
+        } while (strategy.contentsLost());
+
+        Toolkit.getDefaultToolkit().sync();
+        scene.framePresented(System.nanoTime());
+    }
+
+    @Override
+    public boolean presentsOnEventThread() {
+        return false;
+    }
+
+    @Override
+    public Component getComponent() {
+        return this;
+    }
+
+    @Override
+    public int toWorldX(int x) {
+        return scene.getSurface().toWorldX(x, getWidth(), getHeight());
+    }
+
+    @Override
+    public int toWorldY(int y) {
+        return scene.getSurface().toWorldY(y, getWidth(), getHeight());
+    }
+}
@@ -0,0 +1,52 @@
+package airhockey.game;
+
+public class FixedTimestep {
+    private final long stepNanos;
+    private final float stepSeconds;
+    private final int maxCatchUpSteps;
+
+    private long lastTime = -1;
+    private long accumulator = 0;
+
+    public FixedTimestep(int tickRate, int maxCatchUpSteps) {
+        this.stepNanos = 1_000_000_000L / tickRate;
+        this.stepSeconds = 1.0f / tickRate;
+        this.maxCatchUpSteps = maxCatchUpSteps;
+    }
+
+    // Returns how many fixed steps are due since the last call
+    public int advance(long now) {
+        if (lastTime < 0) {
+            lastTime = now;
+            return 0;
+        }
+
+        accumulator += now - lastTime;
+        lastTime = now;
+
+        int steps = (int)(accumulator / stepNanos);
+        if (steps > maxCatchUpSteps) {
+            // Too far behind (stall, breakpoint, slow machine) - drop the backlog
+            // instead of spiralling into ever longer catch-up frames
+            steps = maxCatchUpSteps;
+            accumulator %= stepNanos;
+        } else {
+            accumulator -= steps * stepNanos;
+        }
+        return steps;
+    }
+
+    // Time left until the next step is due, for sleeping between ticks
+    public long nanosUntilNextStep(long now) {
+        if (lastTime < 0) return 0;
+        return stepNanos - accumulator - (now - lastTime);
+    }
+
+    public void reset() {
+        lastTime = -1;
+        accumulator = 0;
+    }
+
+    public float getStepSeconds() { return stepSeconds; }
+    public long getStepNanos() { return stepNanos; }
+}
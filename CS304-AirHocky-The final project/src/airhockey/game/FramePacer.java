@@ -0,0 +1,57 @@
+package airhockey.game;
+
+import java.awt.DisplayMode;
+import java.awt.GraphicsEnvironment;
+import java.util.concurrent.locks.LockSupport;
+
+// Frame deadlines on System.nanoTime at a fixed rate, and precise waits for
+// them: park until shortly before the deadline, then spin the rest of the way,
+// because a parked thread can wake up a millisecond or more late.
+public class FramePacer {
+    private static final long SPIN_NANOS = 1_000_000L;
+    private static final int FALLBACK_REFRESH_RATE = 60;
+
+    private final long frameNanos;
+    private long nextFrame = -1;
+
+    // targetFps of 0 follows the display refresh rate
+    public FramePacer(int targetFps) {
+        int fps = targetFps > 0 ? targetFps : displayRefreshRate();
+        this.frameNanos = 1_000_000_000L / fps;
+    }
+
+    public boolean isFrameDue(long now) {
+        return nextFrame < 0 || now - nextFrame >= 0;
+    }
+
+    // Moves the deadline on by one frame. After a stall it restarts from now
+    // rather than firing a burst of frames to catch up
+    public void frameStarted(long now) {
+        if (nextFrame < 0 || now - nextFrame > frameNanos) {
+            nextFrame = now + frameNanos;
+        } else {
+            nextFrame += frameNanos;
+        }
+    }
+
+    public long getNextFrame() { return nextFrame; }
+    public long getFrameNanos() { return frameNanos; }
+
+    public static void sleepUntil(long deadline) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining > SPIN_NANOS) {
+            LockSupport.parkNanos(remaining - SPIN_NANOS);
+        }
+        while (deadline - System.nanoTime() > 0) {
+            Thread.yield();
+        }
+    }
+
+    public static int displayRefreshRate() {
+        if (GraphicsEnvironment.isHeadless()) return FALLBACK_REFRESH_RATE;
+
+        int rate = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice().getDisplayMode().getRefreshRate();
+        return rate == DisplayMode.REFRESH_RATE_UNKNOWN ? FALLBACK_REFRESH_RATE : rate;
+    }
+}
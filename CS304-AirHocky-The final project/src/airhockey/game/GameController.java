@@ -2,16 +2,26 @@ package airhockey.game;
 
 import airhockey.ai.AI;
 import airhockey.core.*;
-import airhockey.physics.PhysicsEngine;
+import airhockey.sim.Match;
+import airhockey.sim.MatchInput;
+import airhockey.sim.MatchListener;
+import airhockey.sim.SnapshotRing;
 import airhockey.utils.Constants;
+import airhockey.utils.TripleBuffer;
 import airhockey.audio.AudioManager;
 
 import java.awt.event.KeyEvent;
 
-public class GameController {
+// Swing front end for a Match: turns keyboard/mouse state into MatchInput and
+// match events into sound and animation. The rules themselves live in Match.
+// The match belongs to the simulation thread. Input handlers run on the EDT
+// and only enqueue events, which the simulation thread drains each tick. The
+// renderer only reads the snapshots published through frames.
+public class GameController implements MatchListener {
     public enum GameMode {
         SINGLE_PLAYER,
-        TWO_PLAYERS
+        TWO_PLAYERS,
+        CHAOS // Single player against the AI with CHAOS_PUCK_COUNT pucks
     }
 
     private GameMode gameMode;
@@ -22,32 +32,34 @@ public class GameController {
     private AudioManager audioManager; // Audio system
 
     private HockeyTable table;
-    private Puck puck;
-    private Mallet player1;
-    private Mallet player2;
-
-    private int player1Score = 0;
-    private int player2Score = 0;
-    private boolean gameRunning = true;
-    private boolean gamePaused = false;
-    private boolean isResetting = false;
-
-    // Power-up system
-    private boolean powerUpActive = false;
-    private String activePowerUp = "";
-    private long powerUpEndTime = 0;
-    private int powerUpRadius = 40; // Size when power-up is active
-
-    // Keyboard controls
-    private boolean p1Up, p1Down, p1Left, p1Right;
-    private boolean p2Up, p2Down, p2Left, p2Right;
+    private Match match;
+    private final MatchInput input = new MatchInput();
+    private SnapshotRing history; // The last SNAPSHOT_HISTORY ticks of the match
+    private TripleBuffer<RenderSnapshot> frames;
+
+    // Key and mouse events from the EDT, drained by the simulation thread
+    private final InputQueue inputQueue = new InputQueue(Constants.INPUT_QUEUE_CAPACITY);
+    private final InputQueue.Handler inputHandler = this::applyInputEvent;
+    private long latencyWindowStart = System.nanoTime();
+    private long inputLatencyAverage, inputLatencyMax; // Microseconds, last full window
+
+    private volatile boolean gameRunning = true;
+    private volatile boolean gamePaused = false;
+
+    // Keyboard controls - KEY_* bits of the keys held down, plus keys pressed
+    // since the last tick so a tap shorter than a tick still moves the mallet
+    private static final int KEY_P1_UP = 1, KEY_P1_DOWN = 2, KEY_P1_LEFT = 4, KEY_P1_RIGHT = 8;
+    private static final int KEY_P2_UP = 16, KEY_P2_DOWN = 32, KEY_P2_LEFT = 64, KEY_P2_RIGHT = 128;
+    private int heldKeys = 0;
+    private int tappedKeys = 0;
 
     // Mouse controls
     private int mouseX, mouseY;
     private boolean mousePressed = false;
+    private boolean mouseTapped = false;
 
     // Game states
-    private int gameState = Constants.STATE_PLAYING;
+    private volatile int gameState = Constants.STATE_PLAYING;
 
     // GameRenderer
     private GameRenderer gameRenderer;
@@ -69,219 +81,219 @@ public class GameController {
 
     private void initialize() {
         table = new HockeyTable();
-        puck = new Puck(Constants.WINDOW_WIDTH/2, Constants.WINDOW_HEIGHT/2);
 
-        player1 = new Mallet(
-                Constants.WINDOW_WIDTH/2,
-                Constants.TABLE_Y + Constants.TABLE_HEIGHT - 100,
-                true
-        );
-
-        player2 = new Mallet(
-                Constants.WINDOW_WIDTH/2,
-                Constants.TABLE_Y + 100,
-                false
-        );
-
-        if (gameMode == GameMode.SINGLE_PLAYER) {
+        if (gameMode != GameMode.TWO_PLAYERS) {
             ai = new AI(aiDifficulty);
         }
 
+        match = new Match(null, ai, gameMode == GameMode.CHAOS ? Constants.CHAOS_PUCK_COUNT : 1);
+        match.setListener(this);
+        history = new SnapshotRing(match, Constants.SNAPSHOT_HISTORY);
+        int puckCount = match.getPucks().length;
+        frames = new TripleBuffer<>(() -> new RenderSnapshot(puckCount));
+
         resetGame();
+        publishFrame();
     }
 
-    public void update() {
-        if (!gameRunning || gamePaused || isResetting) return;
-
-        handleInput();
-
-        if (gameMode == GameMode.SINGLE_PLAYER && ai != null) {
-            ai.update(player2, puck, System.currentTimeMillis());
-        }
-
-        player1.update();
-        player2.update();
-        puck.update();
+    public void update(float dt) {
+        pollInput();
+        if (isIdle()) return;
 
-        checkCollisions();
-        checkGoals();
-        updatePowerUps();
+        readInput();
+        match.step(input, dt);
+        history.save(match);
 
-        if (player1Score >= Constants.WIN_SCORE || player2Score >= Constants.WIN_SCORE) {
+        if (match.isGameOver()) {
             gameRunning = false;
             gameState = Constants.STATE_GAME_OVER;
         }
     }
 
-
-    private void handleInput() {
-        // Player 1 controls
-        if (player1.isMouseControl() && mousePressed) {
-            player1.moveTo(mouseX, mouseY);
-        } else {
-            float dx = 0, dy = 0;
-            float speed = Constants.KEYBOARD_SPEED;
-
-            if (p1Up) dy -= speed;
-            if (p1Down) dy += speed;
-            if (p1Left) dx -= speed;
-            if (p1Right) dx += speed;
-
-            if (dx != 0 || dy != 0) {
-                player1.moveKeyboard(dx, dy);
-            }
-        }
-
-        // Player 2 controls (only in two player mode)
-        if (gameMode == GameMode.TWO_PLAYERS) {
-            float dx2 = 0, dy2 = 0;
-            float speed = Constants.KEYBOARD_SPEED;
-
-            if (p2Up) dy2 -= speed;
-            if (p2Down) dy2 += speed;
-            if (p2Left) dx2 -= speed;
-            if (p2Right) dx2 += speed;
-
-            if (dx2 != 0 || dy2 != 0) {
-                player2.moveKeyboard(dx2, dy2);
-            }
+    // Applies queued input without stepping the match; the idle loop calls this
+    // directly while nothing is being simulated
+    public int pollInput() {
+        int drained = inputQueue.drain(inputHandler);
+        if (isIdle()) {
+            // Taps made while paused should not move anything on resume
+            tappedKeys = 0;
+            mouseTapped = false;
         }
+        return drained;
     }
 
-    private void checkCollisions() {
-        // Check puck-mallet collisions
-        if (PhysicsEngine.checkCollision(puck, player1)) {
-            PhysicsEngine.handleCollision(puck, player1);
-            audioManager.playHit();
+    // Paused or over: the match does not advance until input changes that
+    public boolean isIdle() {
+        return !gameRunning || gamePaused;
+    }
 
-            // Apply power-up effects
-            if (powerUpActive && activePowerUp.equals("SPEED_BOOST")) {
-                puck.setVelocityX(puck.getVelocityX() * 1.5f);
-                puck.setVelocityY(puck.getVelocityY() * 1.5f);
-                audioManager.playPowerUp();
-            }
+    // Copies what the renderer needs into the back buffer and hands it over
+    public void publishFrame() {
+        RenderSnapshot frame = frames.getBack();
+        frame.ticks = match.getTicks();
+
+        Puck[] pucks = match.getPucks();
+        frame.puckCount = pucks.length;
+        for (int i = 0; i < pucks.length; i++) {
+            frame.puckX[i] = pucks[i].getX();
+            frame.puckY[i] = pucks[i].getY();
+            frame.puckVelocityX[i] = pucks[i].getVelocityX();
+            frame.puckVelocityY[i] = pucks[i].getVelocityY();
         }
 
-        if (PhysicsEngine.checkCollision(puck, player2)) {
-            PhysicsEngine.handleCollision(puck, player2);
-            audioManager.playHit();
-
-            // Apply power-up effects
-            if (powerUpActive && activePowerUp.equals("SPEED_BOOST")) {
-                puck.setVelocityX(puck.getVelocityX() * 1.5f);
-                puck.setVelocityY(puck.getVelocityY() * 1.5f);
-                audioManager.playPowerUp();
-            }
+        Mallet player1 = match.getPlayer1();
+        frame.player1X = player1.getX();
+        frame.player1Y = player1.getY();
+        frame.player1VelocityX = player1.getVelocityX();
+        frame.player1VelocityY = player1.getVelocityY();
+
+        Mallet player2 = match.getPlayer2();
+        frame.player2X = player2.getX();
+        frame.player2Y = player2.getY();
+        frame.player2VelocityX = player2.getVelocityX();
+        frame.player2VelocityY = player2.getVelocityY();
+
+        frame.player1Score = match.getPlayer1Score();
+        frame.player2Score = match.getPlayer2Score();
+        frame.powerUpActive = match.isPowerUpActive();
+        frame.activePowerUp = match.getActivePowerUp();
+        frame.gameRunning = gameRunning;
+        frame.gamePaused = gamePaused;
+        frame.mouseControl = player1.isMouseControl();
+
+        // Input latency is reported per one-second window
+        long now = System.nanoTime();
+        if (now - latencyWindowStart >= 1_000_000_000L) {
+            inputLatencyAverage = inputQueue.getAverageLatencyMicros();
+            inputLatencyMax = inputQueue.getMaxLatencyMicros();
+            inputQueue.resetLatencyWindow();
+            latencyWindowStart = now;
         }
+        frame.inputLatencyAverage = inputLatencyAverage;
+        frame.inputLatencyMax = inputLatencyMax;
+        frame.inputTime = inputQueue.getLastEventTime();
 
-        // Check wall collisions
-        PhysicsEngine.handleWallCollision(puck);
+        frames.publish();
     }
 
-    private void checkGoals() {
-        if (puck.isInGoal(true)) { // Top goal - Player 1 scores
-            player1Score++;
-            audioManager.playGoal();
-            triggerGoalEffects(true);
-
-            // Trigger animation
-            if (gameRenderer != null) {
-                gameRenderer.triggerGoalAnimation(true);
-            }
+    private void readInput() {
+        int keys = heldKeys | tappedKeys;
+        tappedKeys = 0;
 
-            resetAfterGoal();
-        } else if (puck.isInGoal(false)) { // Bottom goal - Player 2/AI scores
-            player2Score++;
-            audioManager.playGoal();
-            triggerGoalEffects(false);
+        input.p1MouseActive = mousePressed || mouseTapped;
+        input.p1MouseX = mouseX;
+        input.p1MouseY = mouseY;
+        mouseTapped = false;
 
-            // Trigger animation
-            if (gameRenderer != null) {
-                gameRenderer.triggerGoalAnimation(false);
-            }
+        input.p1DirX = direction(keys, KEY_P1_RIGHT, KEY_P1_LEFT);
+        input.p1DirY = direction(keys, KEY_P1_DOWN, KEY_P1_UP);
 
-            resetAfterGoal();
+        // Player 2 controls (only in two player mode)
+        if (gameMode == GameMode.TWO_PLAYERS) {
+            input.p2DirX = direction(keys, KEY_P2_RIGHT, KEY_P2_LEFT);
+            input.p2DirY = direction(keys, KEY_P2_DOWN, KEY_P2_UP);
         }
     }
 
-    public void setGameRenderer(GameRenderer renderer) {
-        this.gameRenderer = renderer;
+    private static int direction(int keys, int positive, int negative) {
+        return ((keys & positive) != 0 ? 1 : 0) - ((keys & negative) != 0 ? 1 : 0);
     }
 
-    private void triggerGoalEffects(boolean player1Scored) {
-        if (Math.random() < 0.3) {
-            activateRandomPowerUp();
+    // Runs on the simulation thread for each queued event, in arrival order
+    private void applyInputEvent(int type, int keyCode, int x, int y) {
+        switch (type) {
+            case InputQueue.KEY_PRESSED:
+                int pressed = keyBit(keyCode);
+                if (pressed != 0) {
+                    heldKeys |= pressed;
+                    tappedKeys |= pressed;
+                } else {
+                    handleCommandKey(keyCode);
+                }
+                break;
+            case InputQueue.KEY_RELEASED:
+                heldKeys &= ~keyBit(keyCode);
+                break;
+            case InputQueue.MOUSE_MOVED:
+                mouseX = x;
+                mouseY = y;
+                break;
+            case InputQueue.MOUSE_PRESSED:
+                mouseX = x;
+                mouseY = y;
+                mousePressed = true;
+                mouseTapped = true;
+                break;
+            case InputQueue.MOUSE_RELEASED:
+                mousePressed = false;
+                break;
         }
     }
 
-    private void activateRandomPowerUp() {
-        String[] powerUps = {"SPEED_BOOST", "PUCK_SLOW"};
-        activePowerUp = powerUps[(int)(Math.random() * powerUps.length)];
-        powerUpActive = true;
-        powerUpEndTime = System.currentTimeMillis() + 5000; // 5 seconds
+    private static int keyBit(int keyCode) {
+        switch (keyCode) {
+            // Player 1
+            case KeyEvent.VK_W: return KEY_P1_UP;
+            case KeyEvent.VK_S: return KEY_P1_DOWN;
+            case KeyEvent.VK_A: return KEY_P1_LEFT;
+            case KeyEvent.VK_D: return KEY_P1_RIGHT;
 
-        switch(activePowerUp) {
-            case "SPEED_BOOST":
-                break;
-            case "PUCK_SLOW":
-                puck.setVelocityX(puck.getVelocityX() * 0.5f);
-                puck.setVelocityY(puck.getVelocityY() * 0.5f);
-                audioManager.playPowerUp();
-                break;
+            // Player 2
+            case KeyEvent.VK_UP: return KEY_P2_UP;
+            case KeyEvent.VK_DOWN: return KEY_P2_DOWN;
+            case KeyEvent.VK_LEFT: return KEY_P2_LEFT;
+            case KeyEvent.VK_RIGHT: return KEY_P2_RIGHT;
+            default: return 0;
         }
     }
 
-    private void updatePowerUps() {
-        if (powerUpActive && System.currentTimeMillis() > powerUpEndTime) {
-            powerUpActive = false;
-            activePowerUp = "";
+    private void handleCommandKey(int keyCode) {
+        switch (keyCode) {
+            case KeyEvent.VK_P:
+            case KeyEvent.VK_SPACE: togglePause(); break;
+            case KeyEvent.VK_R: resetGame(); break;
+            case KeyEvent.VK_M: toggleMouseControl(); break;
+            case KeyEvent.VK_ESCAPE:
+                if (gameState == Constants.STATE_GAME_OVER || gameState == Constants.STATE_PAUSED) {
+                    gameRunning = false;
+                }
+                break;
         }
     }
 
-    private void resetAfterGoal() {
-        isResetting = true;
-
-        new Thread(() -> {
-            try {
-                Thread.sleep(Constants.GOAL_RESET_DELAY);
+    // Match events
+    @Override
+    public void onMalletHit(Mallet mallet) {
+        audioManager.playHit();
+    }
 
-                puck.reset();
-                player1.setX(Constants.WINDOW_WIDTH/2);
-                player1.setY(Constants.TABLE_Y + Constants.TABLE_HEIGHT - 100);
+    @Override
+    public void onPowerUp(String powerUp) {
+        audioManager.playPowerUp();
+    }
 
-                player2.setX(Constants.WINDOW_WIDTH/2);
-                player2.setY(Constants.TABLE_Y + 100);
+    @Override
+    public void onGoal(boolean player1Scored) {
+        audioManager.playGoal();
 
-                if (ai != null) {
-                    ai.reset();
-                }
+        // Trigger animation - picked up by whichever thread draws the next frame
+        GameRenderer renderer = gameRenderer;
+        if (renderer != null) {
+            renderer.triggerGoalAnimation(player1Scored);
+        }
+    }
 
-                isResetting = false;
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
-        }).start();
+    public void setGameRenderer(GameRenderer renderer) {
+        this.gameRenderer = renderer;
     }
 
     public void resetGame() {
-        player1Score = 0;
-        player2Score = 0;
         gameRunning = true;
         gamePaused = false;
-        isResetting = false;
-        powerUpActive = false;
         gameState = Constants.STATE_PLAYING;
 
-        puck.reset();
-        player1.setX(Constants.WINDOW_WIDTH/2);
-        player1.setY(Constants.TABLE_Y + Constants.TABLE_HEIGHT - 100);
-
-        player2.setX(Constants.WINDOW_WIDTH/2);
-        player2.setY(Constants.TABLE_Y + 100);
-
-        if (ai != null) {
-            ai.reset();
-        }
+        match.reset();
+        history.clear();
     }
 
     public void togglePause() {
@@ -290,7 +302,7 @@ public class GameController {
     }
 
     public void toggleMouseControl() {
-        player1.setMouseControl(!player1.isMouseControl());
+        match.getPlayer1().setMouseControl(!match.getPlayer1().isMouseControl());
     }
 
     // Audio controls
@@ -306,78 +318,49 @@ public class GameController {
         audioManager.setVolume(volume);
     }
 
-    // Input handling
+    // Input handling - called on the EDT, applied by the next tick
     public void mouseMoved(int x, int y) {
-        mouseX = x;
-        mouseY = y;
+        inputQueue.offer(InputQueue.MOUSE_MOVED, 0, x, y);
     }
 
     public void mousePressed(int x, int y) {
-        mouseX = x;
-        mouseY = y;
-        mousePressed = true;
+        inputQueue.offer(InputQueue.MOUSE_PRESSED, 0, x, y);
     }
 
     public void mouseReleased() {
-        mousePressed = false;
+        inputQueue.offer(InputQueue.MOUSE_RELEASED, 0, 0, 0);
     }
 
     public void keyPressed(int keyCode) {
-        switch (keyCode) {
-            // Player 1
-            case KeyEvent.VK_W: p1Up = true; break;
-            case KeyEvent.VK_S: p1Down = true; break;
-            case KeyEvent.VK_A: p1Left = true; break;
-            case KeyEvent.VK_D: p1Right = true; break;
-
-            // Player 2
-            case KeyEvent.VK_UP: p2Up = true; break;
-            case KeyEvent.VK_DOWN: p2Down = true; break;
-            case KeyEvent.VK_LEFT: p2Left = true; break;
-            case KeyEvent.VK_RIGHT: p2Right = true; break;
-
-            // Game controls
-            case KeyEvent.VK_P:
-            case KeyEvent.VK_SPACE: togglePause(); break;
-            case KeyEvent.VK_R: resetGame(); break;
-            case KeyEvent.VK_M: toggleMouseControl(); break;
-            case KeyEvent.VK_ESCAPE:
-                if (gameState == Constants.STATE_GAME_OVER || gameState == Constants.STATE_PAUSED) {
-                    gameRunning = false;
-                }
-                break;
-        }
+        inputQueue.offer(InputQueue.KEY_PRESSED, keyCode, 0, 0);
     }
 
     public void keyReleased(int keyCode) {
-        switch (keyCode) {
-            case KeyEvent.VK_W: p1Up = false; break;
-            case KeyEvent.VK_S: p1Down = false; break;
-            case KeyEvent.VK_A: p1Left = false; break;
-            case KeyEvent.VK_D: p1Right = false; break;
-
-            case KeyEvent.VK_UP: p2Up = false; break;
-            case KeyEvent.VK_DOWN: p2Down = false; break;
-            case KeyEvent.VK_LEFT: p2Left = false; break;
-            case KeyEvent.VK_RIGHT: p2Right = false; break;
-        }
+        inputQueue.offer(InputQueue.KEY_RELEASED, keyCode, 0, 0);
     }
 
     // Getters
     public boolean isGameRunning() { return gameRunning; }
     public boolean isGamePaused() { return gamePaused; }
-    public boolean isResetting() { return isResetting; }
-    public int getPlayer1Score() { return player1Score; }
-    public int getPlayer2Score() { return player2Score; }
-    public Puck getPuck() { return puck; }
-    public Mallet getPlayer1() { return player1; }
-    public Mallet getPlayer2() { return player2; }
+    public boolean isResetting() { return match.isResetting(); }
+    public int getWinScore() { return match.getWinScore(); }
+    public int getPlayer1Score() { return match.getPlayer1Score(); }
+    public int getPlayer2Score() { return match.getPlayer2Score(); }
+    public Puck getPuck() { return match.getPuck(); }
+    public Puck[] getPucks() { return match.getPucks(); }
+    public Mallet getPlayer1() { return match.getPlayer1(); }
+    public Mallet getPlayer2() { return match.getPlayer2(); }
     public HockeyTable getTable() { return table; }
+    public Match getMatch() { return match; }
+    public SnapshotRing getHistory() { return history; }
+    public TripleBuffer<RenderSnapshot> getFrames() { return frames; }
+    public InputQueue getInputQueue() { return inputQueue; }
     public GameMode getGameMode() { return gameMode; }
-    public boolean isMouseControl() { return player1.isMouseControl(); }
-    public boolean isPowerUpActive() { return powerUpActive; }
-    public String getActivePowerUp() { return activePowerUp; }
-    public int getPowerUpRadius() { return powerUpRadius; }
+    public boolean isVsAI() { return gameMode != GameMode.TWO_PLAYERS; }
+    public boolean isMouseControl() { return match.getPlayer1().isMouseControl(); }
+    public boolean isPowerUpActive() { return match.isPowerUpActive(); }
+    public String getActivePowerUp() { return match.getActivePowerUp(); }
+    public int getPowerUpRadius() { return match.getPowerUpRadius(); }
     public int getAIDifficulty() { return aiDifficulty; }
     public String getAIDifficultyName() {
         return ai != null ? ai.getDifficultyName() : "N/A";
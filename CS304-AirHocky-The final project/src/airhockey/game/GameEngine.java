@@ -1,27 +1,59 @@
 package airhockey.game;
 
+import airhockey.audio.AudioManager;
+import airhockey.utils.AssetPreloader;
 import airhockey.utils.Constants;
+import airhockey.utils.ImageCache;
 import javax.swing.*;
 import java.awt.*;
+import java.awt.image.BufferedImage;
 
 public class GameEngine {
+    private static final String MENU_BACKGROUND = "menuBackground";
+    private static final String WINDOW_ICON = "windowIcon";
+
     private JFrame mainFrame;
     private CardLayout cardLayout;
     private JPanel mainPanel;
     private GameController gameController;
     private GameRenderer gameRenderer;
-    private Timer gameTimer;
+    private RenderBackend renderBackend;
+    private SimulationThread simulation;
     private SettingsPanel settingsPanel;
     private JLabel backgroundLabel;
 
     private boolean gameActive = false;
     private int selectedDifficulty = 2;
+    private int selectedTickRate = Constants.DEFAULT_TICK_RATE;
+    private int selectedFrameRate = Constants.DEFAULT_FRAME_RATE;
     private Constants.Theme selectedTheme = Constants.Theme.MODERN;
 
     public GameEngine() {
         initialize();
     }
 
+    // Starts decoding everything the menus and the first match need, so they
+    // come up without waiting on disk or image scaling
+    public static void preloadAssets() {
+        AssetPreloader.preload(MENU_BACKGROUND, GameEngine::loadMenuBackground);
+        AssetPreloader.preload(WINDOW_ICON, GameEngine::loadWindowIcon);
+        AudioManager.preloadSounds();
+    }
+
+    private static BufferedImage loadMenuBackground() {
+        return ImageCache.shared().get(Constants.WINDOW_WIDTH, Constants.WINDOW_HEIGHT,
+                "/images/blackboard_1205-357.jpg", "/images/back.png", "/images/bakgrounf.png");
+    }
+
+    private static BufferedImage loadWindowIcon() {
+        return ImageCache.shared().get("/images/if_33_61497.png");
+    }
+
+    // The menu background at window size; null if no image could be loaded
+    static BufferedImage getMenuBackground() {
+        return AssetPreloader.get(MENU_BACKGROUND, GameEngine::loadMenuBackground);
+    }
+
     private void initialize() {
         createMainFrame();
         showMainMenu();
@@ -30,12 +62,14 @@ public class GameEngine {
     private void createMainFrame() {
         mainFrame = new JFrame("Air Hockey 2D - CS304 Project");
         mainFrame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        mainFrame.setResizable(false);
+        // The game scales to any size; below half size it is too small to play
+        mainFrame.setResizable(true);
+        mainFrame.setMinimumSize(new Dimension(Constants.WINDOW_WIDTH / 2, Constants.WINDOW_HEIGHT / 2));
 
-        try {
-            ImageIcon icon = new ImageIcon(getClass().getResource("/images/if_33_61497.png"));
-            mainFrame.setIconImage(icon.getImage());
-        } catch (Exception e) {}
+        BufferedImage icon = AssetPreloader.get(WINDOW_ICON, GameEngine::loadWindowIcon);
+        if (icon != null) {
+            mainFrame.setIconImage(icon);
+        }
 
         cardLayout = new CardLayout();
         mainPanel = new JPanel(cardLayout);
@@ -51,21 +85,12 @@ public class GameEngine {
         JLayeredPane layeredPane = new JLayeredPane();
         layeredPane.setPreferredSize(new Dimension(Constants.WINDOW_WIDTH, Constants.WINDOW_HEIGHT));
 
-        ImageIcon backgroundImage = null;
-        try {
-            backgroundImage = new ImageIcon(getClass().getResource("/images/blackboard_1205-357.jpg"));
-            if (backgroundImage == null) backgroundImage = new ImageIcon(getClass().getResource("/images/back.png"));
-            if (backgroundImage == null) backgroundImage = new ImageIcon(getClass().getResource("/images/bakgrounf.png"));
-        } catch (Exception e) {
-            System.out.println("Could not load background image: " + e.getMessage());
-        }
+        // Decoded and scaled by the asset loader, normally during the introduction
+        BufferedImage backgroundImage = getMenuBackground();
 
         JPanel contentPanel = new JPanel(new GridBagLayout());
-        if (backgroundImage != null && backgroundImage.getImage() != null) {
-            Image scaledImage = backgroundImage.getImage().getScaledInstance(
-                    Constants.WINDOW_WIDTH, Constants.WINDOW_HEIGHT, Image.SCALE_SMOOTH);
-            backgroundImage = new ImageIcon(scaledImage);
-            backgroundLabel = new JLabel(backgroundImage);
+        if (backgroundImage != null) {
+            backgroundLabel = new JLabel(new ImageIcon(backgroundImage));
             backgroundLabel.setBounds(0, 0, Constants.WINDOW_WIDTH, Constants.WINDOW_HEIGHT);
             layeredPane.add(backgroundLabel, JLayeredPane.DEFAULT_LAYER);
             contentPanel.setOpaque(false);
@@ -119,11 +144,12 @@ public class GameEngine {
         gbc.insets = new Insets(20, 50, 40, 50);
         contentPanel.add(titlePanel, gbc);
 
-        Color[] buttonColors = {new Color(30, 144, 255), new Color(50, 205, 50), new Color(255, 140, 0), new Color(220, 20, 60)};
-        String[] buttonTexts = {" SINGLE PLAYER", " TWO PLAYERS", "SETTINGS", "EXIT"};
+        Color[] buttonColors = {new Color(30, 144, 255), new Color(50, 205, 50), new Color(148, 0, 211), new Color(255, 140, 0), new Color(220, 20, 60)};
+        String[] buttonTexts = {" SINGLE PLAYER", " TWO PLAYERS", " CHAOS MODE", "SETTINGS", "EXIT"};
         Runnable[] buttonActions = {
-                () -> showDifficultySelection(true),
-                () -> showDifficultySelection(false),
+                () -> showDifficultySelection(GameController.GameMode.SINGLE_PLAYER),
+                () -> showDifficultySelection(GameController.GameMode.TWO_PLAYERS),
+                () -> showDifficultySelection(GameController.GameMode.CHAOS),
                 () -> showSettings(),
                 () -> System.exit(0)
         };
@@ -167,6 +193,19 @@ public class GameEngine {
         versionPanel.add(versionLabel, BorderLayout.CENTER);
         contentPanel.add(versionPanel, gbc);
 
+        // The layered pane has no layout manager; keep the menu filling the
+        // window as it is resized
+        JPanel menuContent = contentPanel;
+        layeredPane.addComponentListener(new java.awt.event.ComponentAdapter() {
+            @Override
+            public void componentResized(java.awt.event.ComponentEvent e) {
+                menuContent.setBounds(0, 0, layeredPane.getWidth(), layeredPane.getHeight());
+                if (backgroundLabel != null) {
+                    backgroundLabel.setBounds(0, 0, layeredPane.getWidth(), layeredPane.getHeight());
+                }
+            }
+        });
+
         mainPanel.add(layeredPane, "MENU");
         mainFrame.setSize(Constants.WINDOW_WIDTH, Constants.WINDOW_HEIGHT);
         mainFrame.setVisible(true);
@@ -188,7 +227,7 @@ public class GameEngine {
         return panel;
     }
 
-    private void showDifficultySelection(boolean singlePlayer) {
+    private void showDifficultySelection(GameController.GameMode gameMode) {
         JPanel diffPanel = new JPanel(new GridBagLayout());
         diffPanel.setBackground(new Color(20, 25, 40));
 
@@ -204,7 +243,12 @@ public class GameEngine {
         gbc.insets = new Insets(30, 50, 40, 50);
         diffPanel.add(titleLabel, gbc);
 
-        String mode = singlePlayer ? "SINGLE PLAYER" : "TWO PLAYERS";
+        String mode;
+        switch (gameMode) {
+            case TWO_PLAYERS: mode = "TWO PLAYERS"; break;
+            case CHAOS: mode = "CHAOS"; break;
+            default: mode = "SINGLE PLAYER";
+        }
         JLabel modeLabel = new JLabel("Mode: " + mode, SwingConstants.CENTER);
         modeLabel.setFont(new Font("Segoe UI", Font.BOLD, 24));
         modeLabel.setForeground(new Color(55, 55, 60));
@@ -218,7 +262,7 @@ public class GameEngine {
             JButton diffBtn = createDifficultyButton(difficultyIcons[i] + " " + difficulties[i], colors[i]);
             diffBtn.addActionListener(e -> {
                 selectedDifficulty = diff;
-                startGame(singlePlayer ? GameController.GameMode.SINGLE_PLAYER : GameController.GameMode.TWO_PLAYERS);
+                startGame(gameMode);
             });
             gbc.insets = new Insets(10, 150, 10, 150);
             diffPanel.add(diffBtn, gbc);
@@ -245,25 +289,31 @@ public class GameEngine {
         if (settingsPanel != null) {
             selectedDifficulty = settingsPanel.getDifficulty();
             selectedTheme = settingsPanel.getTheme();
+            selectedTickRate = settingsPanel.getTickRate();
+            selectedFrameRate = settingsPanel.getFrameRate();
         }
 
-        if (gameTimer != null) gameTimer.stop();
+        if (simulation != null) simulation.shutdown();
         gameController = new GameController(mode, selectedDifficulty, selectedTheme);
         gameRenderer = new GameRenderer(gameController);
+        gameController.setGameRenderer(gameRenderer);
+        renderBackend = "canvas".equals(System.getProperty(Constants.RENDERER_PROPERTY))
+                ? new CanvasRenderer(gameRenderer) : gameRenderer;
 
         JPanel gamePanel = new JPanel(new BorderLayout());
-        gamePanel.add(gameRenderer, BorderLayout.CENTER);
+        gamePanel.add(renderBackend.getComponent(), BorderLayout.CENTER);
         mainPanel.add(gamePanel, "GAME");
         cardLayout.show(mainPanel, "GAME");
 
         setupInputListeners();
         startGameLoop();
         gameActive = true;
-        gameRenderer.requestFocusInWindow();
+        renderBackend.getComponent().requestFocusInWindow();
     }
 
     private void setupInputListeners() {
-        gameRenderer.addKeyListener(new java.awt.event.KeyAdapter() {
+        Component display = renderBackend.getComponent();
+        display.addKeyListener(new java.awt.event.KeyAdapter() {
             @Override
             public void keyPressed(java.awt.event.KeyEvent e) {
                 gameController.keyPressed(e.getKeyCode());
@@ -281,22 +331,22 @@ public class GameEngine {
             }
         });
 
-        gameRenderer.addMouseMotionListener(new java.awt.event.MouseMotionAdapter() {
+        display.addMouseMotionListener(new java.awt.event.MouseMotionAdapter() {
             @Override
             public void mouseMoved(java.awt.event.MouseEvent e) {
-                gameController.mouseMoved(e.getX(), e.getY());
+                gameController.mouseMoved(renderBackend.toWorldX(e.getX()), renderBackend.toWorldY(e.getY()));
             }
 
             @Override
             public void mouseDragged(java.awt.event.MouseEvent e) {
-                gameController.mouseMoved(e.getX(), e.getY());
+                gameController.mouseMoved(renderBackend.toWorldX(e.getX()), renderBackend.toWorldY(e.getY()));
             }
         });
 
-        gameRenderer.addMouseListener(new java.awt.event.MouseAdapter() {
+        display.addMouseListener(new java.awt.event.MouseAdapter() {
             @Override
             public void mousePressed(java.awt.event.MouseEvent e) {
-                gameController.mousePressed(e.getX(), e.getY());
+                gameController.mousePressed(renderBackend.toWorldX(e.getX()), renderBackend.toWorldY(e.getY()));
             }
 
             @Override
@@ -307,16 +357,15 @@ public class GameEngine {
     }
 
     private void startGameLoop() {
-        gameTimer = new Timer(16, e -> {
-            if (!gameActive) return;
-            gameController.update();
-            gameRenderer.repaint();
-        });
-        gameTimer.start();
+        // Simulation runs in fixed steps on its own thread, which also paces
+        // frames; rendering only ever reads the snapshots it publishes
+        simulation = new SimulationThread(gameController, renderBackend, selectedTickRate, selectedFrameRate);
+        gameRenderer.setFrameBudget(simulation.getFrameNanos());
+        simulation.start();
     }
 
     private void stopGame() {
-        if (gameTimer != null) gameTimer.stop();
+        if (simulation != null) simulation.shutdown();
         gameActive = false;
         if (gameController != null) gameController.dispose();
     }
@@ -397,6 +446,7 @@ public class GameEngine {
     }
 
     public static void startGameDirectly() {
+        preloadAssets();
         javax.swing.SwingUtilities.invokeLater(() -> {
             GameEngine engine = new GameEngine();
             engine.start();
@@ -2,16 +2,94 @@ package airhockey.game;
 
 import airhockey.core.*;
 import airhockey.utils.Constants;
+import airhockey.utils.DirtyRegion;
+import airhockey.utils.FrameTimeHistogram;
+import airhockey.utils.HudText;
+import airhockey.utils.RenderCache;
 import airhockey.animation.GoalAnimation;
 import javax.swing.*;
 import java.awt.*;
+import java.awt.geom.Path2D;
 
-public class GameRenderer extends JPanel {
+// Draws the game scene into a RenderSurface at the internal resolution, which
+// either backend then scales to its window. As a JPanel it is also the Swing
+// rendering backend; with the Canvas backend it is only used through
+// renderFrame/presentSurface/framePresented.
+public class GameRenderer extends JPanel implements RenderBackend {
     private GameController gameController;
     private GoalAnimation goalAnimation;
-    private int fps = 0;
-    private long lastFpsTime = 0;
-    private int frameCount = 0;
+    // Present-to-present frame times, summarised once per second
+    private final FrameTimeHistogram frameTimes = new FrameTimeHistogram();
+    private long lastPresentTime = 0;
+    private long frameWindowStart = System.nanoTime();
+    private String frameTimeText = "Frame: - ms";
+    // Time spent inside paintComponent, over the same window
+    private final FrameTimeHistogram paintTimes = new FrameTimeHistogram();
+    private String paintTimeText = "Paint: - ms";
+    // Input to display: from an input event being offered to the first frame
+    // showing its effect being presented
+    private final FrameTimeHistogram displayLatencies = new FrameTimeHistogram();
+    private long drawnInputTime = 0;
+    private long shownInputTime = 0;
+    private float displayLatencyP50 = 0, displayLatencyP99 = 0;
+    // Render quality, stepped by the frame and paint times of each window.
+    // Windows with paused or game-over frames are idle-paced and not judged,
+    // and neither is the first, which pays for warming up.
+    private final QualityGovernor quality = new QualityGovernor();
+    private boolean windowHadIdleFrame = true;
+
+    // Goal animations are requested from the simulation thread and started by
+    // the thread that draws: 0 none, 1 player 1 scored, 2 player 2 scored
+    private volatile int pendingGoal = 0;
+
+    private final RenderSurface surface = new RenderSurface(Constants.RENDER_SCALE);
+
+    // Swing backend: presentFrame works out what changed since the last frame,
+    // redraws only that in the surface, clipped to the dirty rectangles, and
+    // has Swing copy only the matching part of the window
+    private final DirtyRegion dirty = new DirtyRegion();
+    private final Path2D.Float dirtyClip = new Path2D.Float();
+    private final Rectangle repaintArea = new Rectangle();
+    private boolean presenting = false;    // drawFrame is running for presentFrame
+    private boolean fullRepaintNeeded = true;
+    private RenderSnapshot presentedFrame;
+    private long frameMillis;
+
+    // What the last drawFrame put on screen
+    private float[] drawnPuckX = new float[0];
+    private float[] drawnPuckY = new float[0];
+    private float drawnPlayer1X, drawnPlayer1Y, drawnPlayer2X, drawnPlayer2Y;
+    private boolean drawnPaused, drawnRunning, drawnMouseControl, drawnPowerUp, drawnGoal;
+    private Constants.Theme drawnTheme;
+
+    // HUD areas that animate every frame (x, y, width, height)
+    private static final int[][] ANIMATED_HUD = {
+            {Constants.WINDOW_WIDTH/2 - 20, 64, 50, 34},      // "VS"
+            {38, 78, 124, 64},                                // Player 1 score box
+            {Constants.WINDOW_WIDTH - 162, 78, 124, 64},      // Player 2 score box
+            {Constants.WINDOW_WIDTH/2 - 160, 120, 320, 26},   // Win condition
+            {Constants.WINDOW_WIDTH - 420, 4, 420, 60}        // Frame statistics and quality
+    };
+    private static final int[] POWER_UP_HUD = {Constants.WINDOW_WIDTH/2 - 122, 143, 244, 44};
+    private static final int PUCK_EXTENT = Constants.PUCK_RADIUS + 9;     // Sprite half-size, glow included
+    private static final int MALLET_EXTENT = Constants.MALLET_RADIUS + 6;
+
+    // HUD text, pre-rendered and only redrawn when what it shows changes
+    private final HudText player1Name = nameText();
+    private final HudText player2Name = nameText();
+    private final HudText player1ScoreText = scoreText(Constants.PLAYER1_COLOR);
+    private final HudText player2ScoreText;
+    private final HudText vsText = new HudText(RenderCache.font("Impact", Font.BOLD, 24), Color.WHITE);
+    private final HudText winConditionText = new HudText(RenderCache.font("Arial", Font.BOLD, 18),
+            RenderCache.color(255, 255, 200));
+    private final HudText powerUpText = new HudText(RenderCache.font("Arial", Font.BOLD, 14), Color.WHITE);
+    private final HudText infoText = new HudText(RenderCache.font("Arial", Font.BOLD, 14), Color.WHITE);
+    private final HudText controlsText = new HudText(RenderCache.font("Arial", Font.PLAIN, 12),
+            RenderCache.color(200, 200, 255, 180));
+    private final HudText frameTimeLabel = statsText();
+    private final HudText paintTimeLabel = statsText();
+    private final HudText latencyLabel = statsText();
+    private final HudText qualityLabel = statsText();
 
     // Animation variables
     private float titleGlow = 0f;
@@ -20,54 +98,189 @@ public class GameRenderer extends JPanel {
 
     public GameRenderer(GameController controller) {
         this.gameController = controller;
-        this.goalAnimation = new GoalAnimation();
+        this.goalAnimation = new GoalAnimation(Constants.PARTICLE_CAPACITY);
         setPreferredSize(new Dimension(Constants.WINDOW_WIDTH, Constants.WINDOW_HEIGHT));
         setBackground(Constants.BACKGROUND_COLOR);
         setDoubleBuffered(true);
         setFocusable(true);
+
+        player1Name.set("PLAYER 1");
+        if (controller.isVsAI()) {
+            player2Name.set("AI");
+            player2ScoreText = scoreText(RenderCache.color(100, 220, 100));
+        } else {
+            player2Name.set("PLAYER 2");
+            player2ScoreText = scoreText(Constants.PLAYER2_COLOR);
+        }
+        vsText.set("VS");
+        controlsText.set("ESC: Menu | P: Pause | R: Restart | M: Toggle");
+    }
+
+    private static HudText nameText() {
+        return new HudText(RenderCache.font("Arial", Font.BOLD, 16), Color.WHITE)
+                .shadow(RenderCache.color(0, 0, 0, 150), 2);
+    }
+
+    private static HudText scoreText(Color color) {
+        return new HudText(RenderCache.font("Impact", Font.BOLD, 36), color)
+                .shadow(RenderCache.color(0, 0, 0, 150), 2)
+                .gradient(RenderCache.brighter(color), 20);
+    }
+
+    private static HudText statsText() {
+        return new HudText(RenderCache.font("Arial", Font.PLAIN, 11), RenderCache.color(0, 255, 0, 180));
     }
 
+    // Shows the surface. Resizes and exposes only scale it again; the scene
+    // is drawn here only if the surface has no whole frame in it.
     @Override
     protected void paintComponent(Graphics g) {
-        super.paintComponent(g);
-        Graphics2D g2d = (Graphics2D) g;
+        if (!presenting && !surface.hasFrame()) {
+            renderFrame(getGraphicsConfiguration());
+        }
+        presentSurface((Graphics2D) g, getWidth(), getHeight());
+    }
+
+    // Draws the newest snapshot into the whole surface. Called by
+    // paintComponent on the EDT, or by CanvasRenderer on the simulation thread.
+    void renderFrame(GraphicsConfiguration gc) {
+        do {
+            surface.validate(gc);
+            Graphics2D g2d = surface.createGraphics();
+            try {
+                drawFrame(g2d);
+            } finally {
+                g2d.dispose();
+            }
+        } while (!surface.finishDrawing(true));
+    }
+
+    void presentSurface(Graphics2D g2d, int width, int height) {
+        surface.present(g2d, width, height, Constants.BACKGROUND_COLOR);
+    }
+
+    // Draws the whole scene from the newest snapshot, in scene units
+    private void drawFrame(Graphics2D g2d) {
+        long paintStart = System.nanoTime();
 
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
-                RenderingHints.VALUE_ANTIALIAS_ON);
-        g2d.setRenderingHint(RenderingHints.KEY_RENDERING,
-                RenderingHints.VALUE_RENDER_QUALITY);
+        boolean antialias = quality.antialiasesShapes();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, antialias
+                ? RenderingHints.VALUE_ANTIALIAS_ON : RenderingHints.VALUE_ANTIALIAS_OFF);
+        g2d.setRenderingHint(RenderingHints.KEY_RENDERING, antialias
+                ? RenderingHints.VALUE_RENDER_QUALITY : RenderingHints.VALUE_RENDER_SPEED);
         g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
                 RenderingHints.VALUE_TEXT_ANTIALIAS_LCD_HRGB);
 
+        // Newest state published by the simulation thread; nothing below
+        // touches the live match. presentFrame has already taken it and
+        // worked out the dirty region from it.
+        RenderSnapshot frame;
+        if (presenting) {
+            frame = presentedFrame;
+        } else {
+            // Drawn by the Canvas backend, or for Swing when the surface was
+            // empty or lost - the next Swing present starts from scratch
+            frame = gameController.getFrames().acquire();
+            frameMillis = System.currentTimeMillis();
+            fullRepaintNeeded = true;
+        }
+        drawnInputTime = frame.inputTime;
+        if (frame.gamePaused || !frame.gameRunning) {
+            windowHadIdleFrame = true;
+        }
+
         // Update animations
         updateAnimations();
 
         // Render game
-        renderGame(g2d);
+        renderGame(g2d, frame);
 
         // Render UI
-        renderUI(g2d);
+        renderUI(g2d, frame);
 
         // Render goal animation
-        goalAnimation.render(g2d);
+        goalAnimation.render(g2d, frameMillis);
 
-        // Update FPS counter
-        updateFPS();
-
-        // Render FPS
-        renderFPS(g2d);
+        // Render frame times
+        renderFrameStats(g2d, frame);
 
         // Render pause screen
-        if (gameController.isGamePaused()) {
+        if (frame.gamePaused) {
             renderPauseScreen(g2d);
         }
 
         // Render game over screen
-        if (!gameController.isGameRunning()) {
-            renderGameOverScreen(g2d);
+        if (!frame.gameRunning) {
+            renderGameOverScreen(g2d, frame);
+        }
+
+        rememberDrawn(frame);
+        paintTimes.record((System.nanoTime() - paintStart) / 1000);
+    }
+
+    private void rememberDrawn(RenderSnapshot frame) {
+        if (drawnPuckX.length != frame.puckCount) {
+            drawnPuckX = new float[frame.puckCount];
+            drawnPuckY = new float[frame.puckCount];
+        }
+        System.arraycopy(frame.puckX, 0, drawnPuckX, 0, frame.puckCount);
+        System.arraycopy(frame.puckY, 0, drawnPuckY, 0, frame.puckCount);
+        drawnPlayer1X = frame.player1X;
+        drawnPlayer1Y = frame.player1Y;
+        drawnPlayer2X = frame.player2X;
+        drawnPlayer2Y = frame.player2Y;
+        drawnPaused = frame.gamePaused;
+        drawnRunning = frame.gameRunning;
+        drawnMouseControl = frame.mouseControl;
+        drawnPowerUp = frame.powerUpActive;
+        drawnGoal = goalAnimation.isActive();
+        drawnTheme = Constants.CURRENT_THEME;
+    }
+
+    // Everything that differs between what is on screen and frame at time
+    private void collectDirtyRegions(RenderSnapshot frame) {
+        dirty.clear();
+
+        // Changes that touch most of the screen: overlays, the info bar,
+        // the goal animation and the theme
+        if (fullRepaintNeeded || frame.gamePaused || drawnPaused
+                || !frame.gameRunning || !drawnRunning
+                || frame.mouseControl != drawnMouseControl
+                || pendingGoal != 0 || drawnGoal || goalAnimation.isActive()
+                || drawnTheme != Constants.CURRENT_THEME
+                || drawnPuckX.length != frame.puckCount) {
+            dirty.markFull();
+            return;
+        }
+
+        for (int i = 0; i < frame.puckCount; i++) {
+            addBody(drawnPuckX[i], drawnPuckY[i], PUCK_EXTENT);
+            addBody(frame.puckX[i], frame.puckY[i], PUCK_EXTENT);
+        }
+        addBody(drawnPlayer1X, drawnPlayer1Y, MALLET_EXTENT);
+        addBody(frame.player1X, frame.player1Y, MALLET_EXTENT);
+        addBody(drawnPlayer2X, drawnPlayer2Y, MALLET_EXTENT);
+        addBody(frame.player2X, frame.player2Y, MALLET_EXTENT);
+
+        for (int[] r : ANIMATED_HUD) {
+            dirty.add(r[0], r[1], r[2], r[3]);
+        }
+        if (frame.powerUpActive || drawnPowerUp) {
+            dirty.add(POWER_UP_HUD[0], POWER_UP_HUD[1], POWER_UP_HUD[2], POWER_UP_HUD[3]);
+        }
+        gameController.getTable().addDirtyRegions(dirty, frameMillis);
+
+        if (dirty.getArea() > (long)Constants.WINDOW_WIDTH * Constants.WINDOW_HEIGHT
+                * Constants.DIRTY_REPAINT_MAX_COVERAGE) {
+            dirty.markFull();
         }
     }
 
+    // Bodies are drawn at truncated coordinates, so the box is too
+    private void addBody(float x, float y, int extent) {
+        dirty.add((int)x - extent, (int)y - extent, extent * 2, extent * 2);
+    }
+
     private void updateAnimations() {
         // Title glow animation
         if (increasing) {
@@ -88,220 +301,205 @@ public class GameRenderer extends JPanel {
         powerUpGlow = (float)(0.5f + 0.5f * Math.sin(System.currentTimeMillis() * 0.005f));
 
         // Update goal animation
-        goalAnimation.update();
+        int goal = pendingGoal;
+        if (goal != 0) {
+            pendingGoal = 0;
+            startGoalAnimation(goal == 1);
+        }
+        goalAnimation.update(frameMillis);
     }
 
-    private void renderGame(Graphics2D g2d) {
+    private void renderGame(Graphics2D g2d, RenderSnapshot frame) {
         // Render table
-        gameController.getTable().render(g2d);
+        boolean decorations = quality.drawsDecorations();
+        gameController.getTable().render(g2d, frameMillis, decorations);
 
-        // Render puck
-        gameController.getPuck().render(g2d);
+        // Render pucks
+        for (int i = 0; i < frame.puckCount; i++) {
+            Puck.render(g2d, frame.puckX[i], frame.puckY[i],
+                    frame.puckVelocityX[i], frame.puckVelocityY[i], Constants.PUCK_RADIUS, decorations);
+        }
 
         // Render mallets
-        gameController.getPlayer1().render(g2d);
-        gameController.getPlayer2().render(g2d);
+        Mallet.render(g2d, frame.player1X, frame.player1Y,
+                frame.player1VelocityX, frame.player1VelocityY, Constants.MALLET_RADIUS, true, decorations);
+        Mallet.render(g2d, frame.player2X, frame.player2Y,
+                frame.player2VelocityX, frame.player2VelocityY, Constants.MALLET_RADIUS, false, decorations);
     }
 
-    private void renderUI(Graphics2D g2d) {
+    private void renderUI(Graphics2D g2d, RenderSnapshot frame) {
 
         // Draw player scores - Adjusted positions
-        renderPlayerScores(g2d);
+        renderPlayerScores(g2d, frame);
 
         // Game info bar at top - Moved down slightly
-        renderGameInfo(g2d);
+        renderGameInfo(g2d, frame);
 
         // Win condition text - Moved up
         renderWinCondition(g2d);
 
         // Render power-up indicator if active
-        if (gameController.isPowerUpActive()) {
-            renderPowerUpIndicator(g2d);
+        if (frame.powerUpActive) {
+            renderPowerUpIndicator(g2d, frame);
         }
 
         renderControlsHint(g2d);
     }
 
-    private void renderPlayerScores(Graphics2D g2d) {
+    private void renderPlayerScores(Graphics2D g2d, RenderSnapshot frame) {
         // Player 1 score (left side)
         renderScore(g2d,
-                "PLAYER 1",
-                gameController.getPlayer1Score(),
-                Constants.PLAYER1_COLOR,
+                player1Name,
+                player1ScoreText,
+                frame.player1Score,
                 50,
                 70,
                 false);
 
         // Player 2/AI score (right side)
-        String player2Name = gameController.getGameMode() == GameController.GameMode.SINGLE_PLAYER ?
-                "AI" : "PLAYER 2";
-        Color player2Color = gameController.getGameMode() == GameController.GameMode.SINGLE_PLAYER ?
-                new Color(100, 220, 100) : Constants.PLAYER2_COLOR;
-
         renderScore(g2d,
                 player2Name,
-                gameController.getPlayer2Score(),
-                player2Color,
+                player2ScoreText,
+                frame.player2Score,
                 Constants.WINDOW_WIDTH - 150,
                 70, // Changed from 40 to 70
                 true);
 
         // VS text in middle - MOVED DOWN from y=60 to y=90
-        g2d.setFont(new Font("Impact", Font.BOLD, 24));
-        g2d.setColor(new Color(255, 255, 255, (int)(titleGlow * 200)));
-        g2d.drawString("VS", Constants.WINDOW_WIDTH/2 - 15, 90); // Changed from 60 to 90
+        vsText.draw(g2d, Constants.WINDOW_WIDTH/2 - 15, 90, titleGlow * 200 / 255f); // Changed from 60 to 90
     }
 
-    private void renderScore(Graphics2D g2d, String name, int score, Color color, int x, int y, boolean rightAlign) {
-        // Player name
-        g2d.setFont(new Font("Arial", Font.BOLD, 16));
-        g2d.setColor(new Color(255, 255, 255, 220));
-
-        FontMetrics nameFm = g2d.getFontMetrics();
-        int nameWidth = nameFm.stringWidth(name);
-        int nameX = rightAlign ? x + 100 - nameWidth : x;
-
-        // Name shadow
-        g2d.setColor(new Color(0, 0, 0, 150));
-        g2d.drawString(name, nameX + 2, y + 2);
-
-        // Name text
-        g2d.setColor(Color.WHITE);
-        g2d.drawString(name, nameX, y);
+    private void renderScore(Graphics2D g2d, HudText name, HudText scoreText, int score,
+                             int x, int y, boolean rightAlign) {
+        // Player name, with its shadow
+        int nameX = rightAlign ? x + 100 - name.getWidth() : x;
+        name.draw(g2d, nameX, y);
 
         // Score background with glow
         int scoreY = y + 30;
-        g2d.setColor(new Color(0, 0, 0, 120));
+        g2d.setColor(RenderCache.color(0, 0, 0, 120));
         g2d.fillRoundRect(x - 10, scoreY - 20, 120, 60, 15, 15);
 
         // Score border with animation
-        g2d.setColor(new Color(255, 255, 255, (int)(titleGlow * 100)));
-        g2d.setStroke(new BasicStroke(2));
+        g2d.setColor(RenderCache.color(255, 255, 255, (int)(titleGlow * 100)));
+        g2d.setStroke(RenderCache.stroke(2));
         g2d.drawRoundRect(x - 10, scoreY - 20, 120, 60, 15, 15);
 
-        // Score
-        g2d.setFont(new Font("Impact", Font.BOLD, 36));
-        String scoreStr = String.valueOf(score);
-        FontMetrics scoreFm = g2d.getFontMetrics();
-        int scoreWidth = scoreFm.stringWidth(scoreStr);
-        int scoreX = rightAlign ? x + 100 - scoreWidth : x;
-
-        // Score shadow
-        g2d.setColor(new Color(0, 0, 0, 150));
-        g2d.drawString(scoreStr, scoreX + 2, scoreY + 30 + 2);
-
-        // Main score with gradient
-        GradientPaint scoreGradient = new GradientPaint(
-                scoreX, scoreY + 10, color,
-                scoreX, scoreY + 30, color.brighter()
-        );
-        g2d.setPaint(scoreGradient);
-        g2d.drawString(scoreStr, scoreX, scoreY + 30);
+        // Score with shadow and gradient
+        if (!scoreText.isCurrent(score)) {
+            scoreText.set(score, String.valueOf(score));
+        }
+        int scoreX = rightAlign ? x + 100 - scoreText.getWidth() : x;
+        scoreText.draw(g2d, scoreX, scoreY + 30);
 
         // Inner glow effect
-        g2d.setColor(new Color(255, 255, 255, 30));
+        g2d.setColor(RenderCache.color(255, 255, 255, 30));
         g2d.fillRoundRect(x - 5, scoreY - 15, 110, 50, 10, 10);
     }
 
     private void renderWinCondition(Graphics2D g2d) {
         // Draw win condition text - MOVED UP from y=WINDOW_HEIGHT-35 to y=140
-        g2d.setFont(new Font("Arial", Font.BOLD, 18));
-        g2d.setColor(new Color(255, 255, 200, (int)(titleGlow * 255)));
-
-        String winText = "First to " + Constants.WIN_SCORE + " wins!";
-        FontMetrics winFm = g2d.getFontMetrics();
-        int winWidth = winFm.stringWidth(winText);
+        int winScore = gameController.getWinScore();
+        if (!winConditionText.isCurrent(winScore)) {
+            winConditionText.set(winScore, "First to " + winScore + " wins!");
+        }
 
         // Position above the table (approximately)
-        g2d.drawString(winText, (Constants.WINDOW_WIDTH - winWidth)/2, 140);
+        winConditionText.draw(g2d, (Constants.WINDOW_WIDTH - winConditionText.getWidth())/2, 140, titleGlow);
     }
 
-    private void renderPowerUpIndicator(Graphics2D g2d) {
+    private void renderPowerUpIndicator(Graphics2D g2d, RenderSnapshot frame) {
         int centerX = Constants.WINDOW_WIDTH / 2;
         int y = 160;
 
         // Background with glow
-        g2d.setColor(new Color(255, 215, 0, (int)(powerUpGlow * 100)));
+        g2d.setColor(RenderCache.color(255, 215, 0, (int)(powerUpGlow * 100)));
         g2d.fillRoundRect(centerX - 120, y - 15, 240, 40, 15, 15);
 
         // Border with animation
-        g2d.setColor(new Color(255, 215, 0, (int)(powerUpGlow * 200)));
-        g2d.setStroke(new BasicStroke(2));
+        g2d.setColor(RenderCache.color(255, 215, 0, (int)(powerUpGlow * 200)));
+        g2d.setStroke(RenderCache.stroke(2));
         g2d.drawRoundRect(centerX - 120, y - 15, 240, 40, 15, 15);
 
         // Power-up text
-        g2d.setFont(new Font("Arial", Font.BOLD, 14));
-        g2d.setColor(Color.WHITE);
-
-        String powerUpText = "POWER UP: " + gameController.getActivePowerUp();
-        FontMetrics fm = g2d.getFontMetrics();
-        int textWidth = fm.stringWidth(powerUpText);
-
-        g2d.drawString(powerUpText, centerX - textWidth/2, y + 5);
+        if (!powerUpText.isCurrent(frame.activePowerUp)) {
+            powerUpText.set(frame.activePowerUp, "POWER UP: " + frame.activePowerUp);
+        }
+        powerUpText.draw(g2d, centerX - powerUpText.getWidth()/2, y + 5);
 
         // Timer bar
-        g2d.setColor(new Color(0, 255, 0, 150));
+        g2d.setColor(RenderCache.color(0, 255, 0, 150));
         g2d.fillRoundRect(centerX - 90, y + 12, 180, 6, 3, 3);
     }
 
-    private void renderGameInfo(Graphics2D g2d) {
+    private void renderGameInfo(Graphics2D g2d, RenderSnapshot frame) {
         // Draw semi-transparent info bar at top
-        GradientPaint gradient = new GradientPaint(
-                0, 0, new Color(0, 0, 0, 180),
-                0, 40, new Color(40, 40, 60, 180)
+        GradientPaint gradient = RenderCache.gradient(
+                0, 0, RenderCache.color(0, 0, 0, 180),
+                0, 40, RenderCache.color(40, 40, 60, 180)
         );
         g2d.setPaint(gradient);
         g2d.fillRect(0, 0, Constants.WINDOW_WIDTH, 40);
 
-        // Game mode and controls info - MOVED DOWN inside the taller bar
-        g2d.setFont(new Font("Arial", Font.BOLD, 14));
-        g2d.setColor(Color.WHITE);
+        // Game mode and controls info - MOVED DOWN inside the taller bar.
+        // Only rebuilt when one of the things it shows changes.
+        long infoKey = gameController.getGameMode().ordinal()
+                | (long) gameController.getAIDifficulty() << 8
+                | (frame.mouseControl ? 1L << 16 : 0)
+                | (frame.gamePaused ? 1L << 17 : 0);
+        if (!infoText.isCurrent(infoKey)) {
+            infoText.set(infoKey, gameInfo(frame));
+        }
+        infoText.draw(g2d, (Constants.WINDOW_WIDTH - infoText.getWidth())/2, 25); // Changed from 20 to 25
+    }
 
-        String mode = gameController.getGameMode() == GameController.GameMode.SINGLE_PLAYER ?
-                "SINGLE PLAYER" : "TWO PLAYERS";
+    private String gameInfo(RenderSnapshot frame) {
+        String mode;
+        switch (gameController.getGameMode()) {
+            case TWO_PLAYERS: mode = "TWO PLAYERS"; break;
+            case CHAOS: mode = "CHAOS"; break;
+            default: mode = "SINGLE PLAYER";
+        }
 
         String difficulty = "";
-        if (gameController.getGameMode() == GameController.GameMode.SINGLE_PLAYER) {
+        if (gameController.isVsAI()) {
             difficulty = " | AI: " + gameController.getAIDifficultyName();
         }
 
-        String control = gameController.isMouseControl() ? "MOUSE" : "KEYBOARD";
+        String control = frame.mouseControl ? "MOUSE" : "KEYBOARD";
         String info = mode + difficulty + " | " + control;
 
-        if (gameController.isGamePaused()) {
+        if (frame.gamePaused) {
             info += " | PAUSED";
         }
-
-        FontMetrics infoFm = g2d.getFontMetrics();
-        int infoWidth = infoFm.stringWidth(info);
-        g2d.drawString(info, (Constants.WINDOW_WIDTH - infoWidth)/2, 25); // Changed from 20 to 25
+        return info;
     }
 
     private void renderPauseScreen(Graphics2D g2d) {
         // Semi-transparent overlay with blur effect
-        g2d.setColor(new Color(0, 0, 0, 200));
+        g2d.setColor(RenderCache.color(0, 0, 0, 200));
         g2d.fillRect(0, 0, Constants.WINDOW_WIDTH, Constants.WINDOW_HEIGHT);
 
         // Paused text - Properly centered
-        g2d.setFont(new Font("Impact", Font.BOLD, 60));
+        g2d.setFont(RenderCache.font("Impact", Font.BOLD, 60));
         String pauseText = "GAME PAUSED";
         FontMetrics pm = g2d.getFontMetrics();
         int pauseWidth = pm.stringWidth(pauseText);
 
         // Animated glow effect
         for (int i = 5; i > 0; i--) {
-            g2d.setColor(new Color(255, 215, 0, 30 + i * 20));
+            g2d.setColor(RenderCache.color(255, 215, 0, 30 + i * 20));
             g2d.drawString(pauseText,
                     (Constants.WINDOW_WIDTH - pauseWidth)/2 + i,
                     Constants.WINDOW_HEIGHT/2 + i);
         }
 
         // Main text with gradient
-        GradientPaint textGradient = new GradientPaint(
+        GradientPaint textGradient = RenderCache.gradient(
                 (Constants.WINDOW_WIDTH - pauseWidth)/2, Constants.WINDOW_HEIGHT/2 - 40,
                 Color.YELLOW,
                 (Constants.WINDOW_WIDTH - pauseWidth)/2, Constants.WINDOW_HEIGHT/2 + 40,
-                new Color(255, 140, 0)
+                RenderCache.color(255, 140, 0)
         );
         g2d.setPaint(textGradient);
         g2d.drawString(pauseText,
@@ -310,8 +508,8 @@ public class GameRenderer extends JPanel {
 
         // Instruction with fade effect - MOVED UP slightly
         float instructionAlpha = (float)(0.7f + 0.3f * Math.sin(System.currentTimeMillis() * 0.002f));
-        g2d.setFont(new Font("Arial", Font.BOLD, 22));
-        g2d.setColor(new Color(255, 255, 255, (int)(instructionAlpha * 255)));
+        g2d.setFont(RenderCache.font("Arial", Font.BOLD, 22));
+        g2d.setColor(RenderCache.fade(255, 255, 255, instructionAlpha));
 
         String instruction = "Press P or SPACE to continue";
         FontMetrics im = g2d.getFontMetrics();
@@ -322,27 +520,27 @@ public class GameRenderer extends JPanel {
                 Constants.WINDOW_HEIGHT/2 + 60);
     }
 
-    private void renderGameOverScreen(Graphics2D g2d) {
+    private void renderGameOverScreen(Graphics2D g2d, RenderSnapshot frame) {
         // Semi-transparent overlay with gradient
-        GradientPaint overlayGradient = new GradientPaint(
-                0, 0, new Color(0, 0, 0, 220),
-                0, Constants.WINDOW_HEIGHT, new Color(30, 30, 60, 220)
+        GradientPaint overlayGradient = RenderCache.gradient(
+                0, 0, RenderCache.color(0, 0, 0, 220),
+                0, Constants.WINDOW_HEIGHT, RenderCache.color(30, 30, 60, 220)
         );
         g2d.setPaint(overlayGradient);
         g2d.fillRect(0, 0, Constants.WINDOW_WIDTH, Constants.WINDOW_HEIGHT);
 
         // Winner text
-        g2d.setFont(new Font("Impact", Font.BOLD, 56));
+        g2d.setFont(RenderCache.font("Impact", Font.BOLD, 56));
 
         String winnerText;
         Color winnerColor;
-        if (gameController.getPlayer1Score() >= Constants.WIN_SCORE) {
+        if (frame.player1Score >= gameController.getWinScore()) {
             winnerText = "PLAYER 1 WINS!";
             winnerColor = Constants.PLAYER1_COLOR;
         } else {
-            if (gameController.getGameMode() == GameController.GameMode.SINGLE_PLAYER) {
+            if (gameController.isVsAI()) {
                 winnerText = "AI WINS!";
-                winnerColor = new Color(100, 200, 100);
+                winnerColor = RenderCache.color(100, 200, 100);
             } else {
                 winnerText = "PLAYER 2 WINS!";
                 winnerColor = Constants.PLAYER2_COLOR;
@@ -353,18 +551,18 @@ public class GameRenderer extends JPanel {
         int winnerWidth = wm.stringWidth(winnerText);
 
         for (int i = 5; i > 0; i--) {
-            g2d.setColor(new Color(0, 0, 0, 30 * i));
+            g2d.setColor(RenderCache.color(0, 0, 0, 30 * i));
             g2d.drawString(winnerText,
                     (Constants.WINDOW_WIDTH - winnerWidth)/2 + i*2,
                     Constants.WINDOW_HEIGHT/2 - 60 + i*2);
         }
 
         // Main winner text with gradient
-        GradientPaint winnerGradient = new GradientPaint(
+        GradientPaint winnerGradient = RenderCache.gradient(
                 (Constants.WINDOW_WIDTH - winnerWidth)/2, Constants.WINDOW_HEIGHT/2 - 80,
                 winnerColor,
                 (Constants.WINDOW_WIDTH - winnerWidth)/2, Constants.WINDOW_HEIGHT/2 - 20,
-                winnerColor.brighter()
+                RenderCache.brighter(winnerColor)
         );
         g2d.setPaint(winnerGradient);
         g2d.drawString(winnerText,
@@ -372,16 +570,16 @@ public class GameRenderer extends JPanel {
                 Constants.WINDOW_HEIGHT/2 - 60);
 
         // Score text
-        g2d.setFont(new Font("Arial", Font.BOLD, 32));
-        g2d.setColor(new Color(255, 255, 255, 220));
+        g2d.setFont(RenderCache.font("Arial", Font.BOLD, 32));
+        g2d.setColor(RenderCache.color(255, 255, 255, 220));
 
-        String scoreText = "Final Score: " + gameController.getPlayer1Score() +
-                " - " + gameController.getPlayer2Score();
+        String scoreText = "Final Score: " + frame.player1Score +
+                " - " + frame.player2Score;
         FontMetrics sm = g2d.getFontMetrics();
         int scoreWidth = sm.stringWidth(scoreText);
 
         // Score background
-        g2d.setColor(new Color(0, 0, 0, 120));
+        g2d.setColor(RenderCache.color(0, 0, 0, 120));
         g2d.fillRoundRect(
                 (Constants.WINDOW_WIDTH - scoreWidth)/2 - 20,
                 Constants.WINDOW_HEIGHT/2 - 10,
@@ -398,8 +596,8 @@ public class GameRenderer extends JPanel {
 
         // Options with blinking effect
         float blinkAlpha = (float)(0.5f + 0.5f * Math.sin(System.currentTimeMillis() * 0.003f));
-        g2d.setFont(new Font("Arial", Font.BOLD, 22));
-        g2d.setColor(new Color(200, 200, 255, (int)(blinkAlpha * 255)));
+        g2d.setFont(RenderCache.font("Arial", Font.BOLD, 22));
+        g2d.setColor(RenderCache.fade(200, 200, 255, blinkAlpha));
 
         String option1 = "Press R to play again";
         String option2 = "Press ESC for main menu";
@@ -418,33 +616,179 @@ public class GameRenderer extends JPanel {
 
     private void renderControlsHint(Graphics2D g2d) {
         // Controls hint at bottom
-        g2d.setFont(new Font("Arial", Font.PLAIN, 12));
-        g2d.setColor(new Color(200, 200, 255, 180));
+        controlsText.draw(g2d, (Constants.WINDOW_WIDTH - controlsText.getWidth())/2, Constants.WINDOW_HEIGHT - 10);
+    }
 
-        String controls = "ESC: Menu | P: Pause | R: Restart | M: Toggle";
-        FontMetrics controlsFm = g2d.getFontMetrics();
-        int controlsWidth = controlsFm.stringWidth(controls);
-        g2d.drawString(controls, (Constants.WINDOW_WIDTH - controlsWidth)/2, Constants.WINDOW_HEIGHT - 10);
+    private void renderFrameStats(Graphics2D g2d, RenderSnapshot frame) {
+        frameTimeLabel.set(frameTimeText);
+        frameTimeLabel.draw(g2d, Constants.WINDOW_WIDTH - 10 - frameTimeLabel.getWidth(), 18);
+
+        paintTimeLabel.set(paintTimeText);
+        paintTimeLabel.draw(g2d, Constants.WINDOW_WIDTH - 10 - paintTimeLabel.getWidth(), 32);
+
+        // Input queue latency (average / worst) and input-to-display
+        // percentiles over the last second, keyed on the tenths of a
+        // millisecond that are shown
+        long latencyKey = tenths(frame.inputLatencyAverage / 1000f)
+                | tenths(frame.inputLatencyMax / 1000f) << 16
+                | tenths(displayLatencyP50) << 32
+                | tenths(displayLatencyP99) << 48;
+        if (!latencyLabel.isCurrent(latencyKey)) {
+            latencyLabel.set(latencyKey, String.format("Input: queue %.1f / %.1f | to screen p50 %.1f p99 %.1f ms",
+                    frame.inputLatencyAverage / 1000f, frame.inputLatencyMax / 1000f,
+                    displayLatencyP50, displayLatencyP99));
+        }
+        latencyLabel.draw(g2d, Constants.WINDOW_WIDTH - 10 - latencyLabel.getWidth(), 46);
+
+        // Quality tier, how often it changed and the window it was judged on
+        QualityGovernor.Tier tier = quality.getTier();
+        float frameP95 = quality.getLastFrameP95() / 1000f;
+        float paintP95 = quality.getLastPaintP95() / 1000f;
+        long qualityKey = tier.ordinal()
+                | (long) Math.min(quality.getChanges(), 0xFFFF) << 8
+                | tenths(frameP95) << 24
+                | tenths(paintP95) << 40;
+        if (!qualityLabel.isCurrent(qualityKey)) {
+            qualityLabel.set(qualityKey, String.format("Quality: %s | %d changes | p95 frame %.1f paint %.1f ms",
+                    tier.getLabel(), quality.getChanges(), frameP95, paintP95));
+        }
+        qualityLabel.draw(g2d, Constants.WINDOW_WIDTH - 10 - qualityLabel.getWidth(), 60);
     }
 
-    private void renderFPS(Graphics2D g2d) {
-        g2d.setFont(new Font("Arial", Font.PLAIN, 11));
-        g2d.setColor(new Color(0, 255, 0, 180));
-        g2d.drawString("FPS: " + fps, Constants.WINDOW_WIDTH - 60, 30); // Changed from 20 to 30
+    private static long tenths(float millis) {
+        return Math.min(Math.round(millis * 10), 0xFFFF);
     }
 
-    private void updateFPS() {
-        frameCount++;
-        long currentTime = System.currentTimeMillis();
+    // Called on the EDT by the frame pacer: paints now rather than waiting for
+    // the RepaintManager, flushes the pipeline and records the frame time
+    @Override
+    public void presentFrame() {
+        if (!isShowing()) return;
+
+        presentedFrame = gameController.getFrames().acquire();
+        frameMillis = System.currentTimeMillis();
+        if (surface.validate(getGraphicsConfiguration())) {
+            fullRepaintNeeded = true;
+        }
+        collectDirtyRegions(presentedFrame);
+
+        presenting = true;
+        try {
+            boolean full = dirty.isFull();
+            while (true) {
+                Graphics2D g2d = surface.createGraphics();
+                try {
+                    if (!full) {
+                        dirty.toPath(dirtyClip);
+                        g2d.clip(dirtyClip);
+                    }
+                    drawFrame(g2d);
+                } finally {
+                    g2d.dispose();
+                }
+                if (surface.finishDrawing(full)) break;
+
+                // Lost while drawing: whatever was kept in it is gone too
+                surface.validate(getGraphicsConfiguration());
+                full = true;
+            }
 
-        if (currentTime - lastFpsTime >= 1000) {
-            fps = frameCount;
-            frameCount = 0;
-            lastFpsTime = currentTime;
+            if (full) {
+                fullRepaintNeeded = false;
+                paintImmediately(0, 0, getWidth(), getHeight());
+            } else {
+                surface.toComponent(dirty.getBoundsX(), dirty.getBoundsY(),
+                        dirty.getBoundsWidth(), dirty.getBoundsHeight(), getWidth(), getHeight(), repaintArea);
+                paintImmediately(repaintArea);
+            }
+        } finally {
+            presenting = false;
         }
+        Toolkit.getDefaultToolkit().sync();
+        framePresented(System.nanoTime());
+    }
+
+    @Override
+    public boolean presentsOnEventThread() {
+        return true;
+    }
+
+    @Override
+    public Component getComponent() {
+        return this;
     }
 
+    @Override
+    public int toWorldX(int x) {
+        return surface.toWorldX(x, getWidth(), getHeight());
+    }
+
+    @Override
+    public int toWorldY(int y) {
+        return surface.toWorldY(y, getWidth(), getHeight());
+    }
+
+    RenderSurface getSurface() {
+        return surface;
+    }
+
+    // Frame statistics, recorded by whichever backend presented the frame
+    void framePresented(long now) {
+        if (drawnInputTime != shownInputTime) {
+            displayLatencies.record((now - drawnInputTime) / 1000);
+            shownInputTime = drawnInputTime;
+        }
+
+        if (lastPresentTime != 0) {
+            frameTimes.record((now - lastPresentTime) / 1000);
+        }
+        lastPresentTime = now;
+
+        if (now - frameWindowStart >= 1_000_000_000L) {
+            if (!windowHadIdleFrame && frameTimes.getTotalCount() > 0) {
+                judgeQuality(frameTimes.getValueAtPercentile(95), paintTimes.getValueAtPercentile(95));
+            }
+            windowHadIdleFrame = false;
+            frameTimeText = String.format("Frame p50 %.1f | p99 %.1f | max %.1f ms",
+                    frameTimes.getValueAtPercentile(50) / 1000f,
+                    frameTimes.getValueAtPercentile(99) / 1000f,
+                    frameTimes.getMax() / 1000f);
+            paintTimeText = String.format("Paint p50 %.2f | p99 %.2f | max %.2f ms",
+                    paintTimes.getValueAtPercentile(50) / 1000f,
+                    paintTimes.getValueAtPercentile(99) / 1000f,
+                    paintTimes.getMax() / 1000f);
+            displayLatencyP50 = displayLatencies.getValueAtPercentile(50) / 1000f;
+            displayLatencyP99 = displayLatencies.getValueAtPercentile(99) / 1000f;
+            frameTimes.reset();
+            paintTimes.reset();
+            displayLatencies.reset();
+            frameWindowStart = now;
+        }
+    }
+
+    private void judgeQuality(long frameP95, long paintP95) {
+        if (!quality.windowClosed(frameP95, paintP95)) return;
+
+        goalAnimation.setParticleLimit(quality.reducesParticles()
+                ? Constants.REDUCED_PARTICLE_LIMIT : Constants.PARTICLE_CAPACITY);
+        fullRepaintNeeded = true;
+    }
+
+    // Frame interval the governor judges frames against, from the pacer
+    public void setFrameBudget(long frameNanos) {
+        quality.setFrameBudget(frameNanos);
+    }
+
+    public QualityGovernor.Tier getQualityTier() {
+        return quality.getTier();
+    }
+
+    // Safe to call from any thread; the animation starts with the next frame
     public void triggerGoalAnimation(boolean player1Scored) {
+        pendingGoal = player1Scored ? 1 : 2;
+    }
+
+    private void startGoalAnimation(boolean player1Scored) {
         String scorer;
         Color color;
 
@@ -452,15 +796,16 @@ public class GameRenderer extends JPanel {
             scorer = "Player 1 Scores!";
             color = Constants.PLAYER1_COLOR;
         } else {
-            if (gameController.getGameMode() == GameController.GameMode.SINGLE_PLAYER) {
+            if (gameController.isVsAI()) {
                 scorer = "AI Scores!";
-                color = new Color(100, 220, 100);
+                color = RenderCache.color(100, 220, 100);
             } else {
                 scorer = "Player 2 Scores!";
                 color = Constants.PLAYER2_COLOR;
             }
         }
 
-        goalAnimation.triggerGoal(scorer, color, Constants.WINDOW_WIDTH/2, Constants.WINDOW_HEIGHT/2);
+        goalAnimation.triggerGoal(scorer, color, Constants.WINDOW_WIDTH/2, Constants.WINDOW_HEIGHT/2,
+                Constants.GOAL_BURST_PARTICLES, frameMillis);
     }
 }
\ No newline at end of file
@@ -0,0 +1,248 @@
+package airhockey.game;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Single-producer/single-consumer ring of timestamped input events. The AWT
+// listeners (all on the EDT) offer events and the simulation thread drains
+// them once per tick, so every key edge and mouse sample arrives whole and in
+// order. Entries live in preallocated arrays, so nothing is allocated per event.
+public class InputQueue {
+    private static final int SPILL_CAPACITY = 64;
+
+    public static final int KEY_PRESSED = 0;
+    public static final int KEY_RELEASED = 1;
+    public static final int MOUSE_MOVED = 2;
+    public static final int MOUSE_PRESSED = 3;
+    public static final int MOUSE_RELEASED = 4;
+
+    public interface Handler {
+        void onInput(int type, int keyCode, int x, int y);
+    }
+
+    private final int capacity;
+    private final int mask;
+    private final int[] types;
+    private final int[] keyCodes;
+    private final int[] xs;
+    private final int[] ys;
+    private final long[] times;
+
+    // tail is written only by the producer, head only by the consumer; lazySet
+    // publishes an entry (or frees a slot) after its fields are written
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private long cachedHead = 0; // Producer's last view of head
+    private volatile int dropped = 0;
+    private volatile Thread waiter = null; // Consumer parked until the next event, if any
+
+    // Events offered while the ring is full wait here, after everything in
+    // the ring, until the consumer takes them. Unlike ring slots these are
+    // only touched under the lock, so they can be rewritten: mouse moves are
+    // merged, and if the spill fills up too an event made redundant by a
+    // later one on the same key goes first. No key is left held down.
+    private final Object spillLock = new Object();
+    private final int[] spillTypes = new int[SPILL_CAPACITY];
+    private final int[] spillKeyCodes = new int[SPILL_CAPACITY];
+    private final int[] spillXs = new int[SPILL_CAPACITY];
+    private final int[] spillYs = new int[SPILL_CAPACITY];
+    private final long[] spillTimes = new long[SPILL_CAPACITY];
+    private int spillCount = 0;
+    private volatile boolean spilled = false; // Set while the producer writes to the spill, not the ring
+
+    // Consumer side: queue latency of the events drained in the current window
+    private long latencyTotalNanos = 0;
+    private long latencyMaxNanos = 0;
+    private int latencyCount = 0;
+    private long lastEventTime = 0; // When the newest drained event was offered
+
+    public InputQueue(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        types = new int[capacity];
+        keyCodes = new int[capacity];
+        xs = new int[capacity];
+        ys = new int[capacity];
+        times = new long[capacity];
+    }
+
+    // Producer side. Once the simulation has fallen a whole ring behind,
+    // events go to the spill; returns false if an older event had to be
+    // dropped (and counted) to make room there.
+    public boolean offer(int type, int keyCode, int x, int y) {
+        boolean kept = true;
+        boolean spilling = spilled;
+        long t = tail.get();
+        if (!spilling && t - cachedHead >= capacity) {
+            cachedHead = head.get();
+        }
+
+        if (spilling || t - cachedHead >= capacity) {
+            kept = spill(type, keyCode, x, y);
+        } else {
+            int slot = (int) t & mask;
+            types[slot] = type;
+            keyCodes[slot] = keyCode;
+            xs[slot] = x;
+            ys[slot] = y;
+            times[slot] = System.nanoTime();
+            tail.lazySet(t + 1);
+        }
+
+        Thread w = waiter;
+        if (w != null) {
+            LockSupport.unpark(w);
+        }
+        return kept;
+    }
+
+    private boolean spill(int type, int keyCode, int x, int y) {
+        long now = System.nanoTime();
+        synchronized (spillLock) {
+            spilled = true;
+
+            // Only the newest mouse position matters
+            int last = spillCount - 1;
+            if (type == MOUSE_MOVED && last >= 0 && spillTypes[last] == MOUSE_MOVED) {
+                spillXs[last] = x;
+                spillYs[last] = y;
+                spillTimes[last] = now;
+                return true;
+            }
+
+            boolean kept = true;
+            if (spillCount == SPILL_CAPACITY) {
+                int victim = evictable(type, keyCode);
+                if (victim < 0) {
+                    // Nothing but releases of different keys queued - only
+                    // then is the new event lost
+                    dropped++;
+                    return false;
+                }
+                removeSpilled(victim);
+                dropped++;
+                kept = false;
+            }
+
+            int slot = spillCount++;
+            spillTypes[slot] = type;
+            spillKeyCodes[slot] = keyCode;
+            spillXs[slot] = x;
+            spillYs[slot] = y;
+            spillTimes[slot] = now;
+            return kept;
+        }
+    }
+
+    // The oldest spilled event that a later one on the same key or mouse
+    // channel (the new event included) makes redundant, so the last event of
+    // each key always stays. Failing that the oldest press or move; -1 if
+    // only releases are left.
+    private int evictable(int type, int keyCode) {
+        int newChannel = channel(type, keyCode);
+        for (int i = 0; i < spillCount; i++) {
+            int c = channel(spillTypes[i], spillKeyCodes[i]);
+            if (c == newChannel) return i;
+            for (int j = i + 1; j < spillCount; j++) {
+                if (channel(spillTypes[j], spillKeyCodes[j]) == c) return i;
+            }
+        }
+        for (int i = 0; i < spillCount; i++) {
+            if (!isRelease(spillTypes[i])) return i;
+        }
+        return -1;
+    }
+
+    // Key events per key code, mouse moves and mouse buttons
+    private static int channel(int type, int keyCode) {
+        if (type == MOUSE_MOVED) return -1;
+        if (type == MOUSE_PRESSED || type == MOUSE_RELEASED) return -2;
+        return keyCode;
+    }
+
+    private void removeSpilled(int index) {
+        int moved = spillCount - index - 1;
+        System.arraycopy(spillTypes, index + 1, spillTypes, index, moved);
+        System.arraycopy(spillKeyCodes, index + 1, spillKeyCodes, index, moved);
+        System.arraycopy(spillXs, index + 1, spillXs, index, moved);
+        System.arraycopy(spillYs, index + 1, spillYs, index, moved);
+        System.arraycopy(spillTimes, index + 1, spillTimes, index, moved);
+        spillCount--;
+    }
+
+    private static boolean isRelease(int type) {
+        return type == KEY_RELEASED || type == MOUSE_RELEASED;
+    }
+
+    // Consumer side: the given thread is unparked by every offer until cleared
+    public void setWaiter(Thread thread) {
+        waiter = thread;
+    }
+
+    // Consumer side: hands every queued event to the handler in order
+    public int drain(Handler handler) {
+        // Read before tail: once the producer spills it stops writing to the
+        // ring, so the ring is then read to its end before the spill
+        boolean takeSpill = spilled;
+        long h = head.get();
+        long t = tail.get();
+        if (h == t && !takeSpill) return 0;
+
+        long now = System.nanoTime();
+        for (long i = h; i < t; i++) {
+            int slot = (int) i & mask;
+            recordLatency(now, times[slot]);
+            handler.onInput(types[slot], keyCodes[slot], xs[slot], ys[slot]);
+        }
+        if (h != t) {
+            lastEventTime = times[(int)(t - 1) & mask];
+            head.lazySet(t);
+        }
+        int count = (int)(t - h);
+
+        if (takeSpill) {
+            synchronized (spillLock) {
+                now = System.nanoTime();
+                for (int i = 0; i < spillCount; i++) {
+                    recordLatency(now, spillTimes[i]);
+                    handler.onInput(spillTypes[i], spillKeyCodes[i], spillXs[i], spillYs[i]);
+                }
+                if (spillCount > 0) lastEventTime = spillTimes[spillCount - 1];
+                count += spillCount;
+                spillCount = 0;
+                spilled = false;
+            }
+        }
+        return count;
+    }
+
+    private void recordLatency(long now, long offered) {
+        long latency = now - offered;
+        latencyTotalNanos += latency;
+        latencyCount++;
+        if (latency > latencyMaxNanos) latencyMaxNanos = latency;
+    }
+
+    // Consumer side: latency figures for the current window, in microseconds
+    public long getAverageLatencyMicros() {
+        return latencyCount > 0 ? latencyTotalNanos / latencyCount / 1000 : 0;
+    }
+
+    public long getMaxLatencyMicros() {
+        return latencyMaxNanos / 1000;
+    }
+
+    public void resetLatencyWindow() {
+        latencyTotalNanos = 0;
+        latencyMaxNanos = 0;
+        latencyCount = 0;
+    }
+
+    public int getDropped() { return dropped; }
+
+    // Consumer side: offer time of the newest event drained so far (0 before any)
+    public long getLastEventTime() { return lastEventTime; }
+}
@@ -0,0 +1,92 @@
+package airhockey.game;
+
+// Chooses how much of the scene to draw from the frame and paint times of
+// each one-second window. It drops one tier as soon as a window runs over
+// budget, and climbs back one tier only after a run of windows with paint time
+// well inside it. The gap between the two thresholds keeps it from flipping
+// between neighbouring tiers, and a climb that is undone straight away doubles
+// the run needed before the next one.
+public class QualityGovernor {
+    // Each tier also drops everything the tiers above it drop
+    public enum Tier {
+        FULL("Full"),
+        NO_DECORATIONS("No glow"),       // No sparkles or puck/mallet glows
+        NO_ANTIALIAS("No AA"),           // No antialiasing on shapes
+        REDUCED_PARTICLES("Low");        // Goal particles capped
+
+        private final String label;
+
+        Tier(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() { return label; }
+    }
+
+    private static final Tier[] TIERS = Tier.values();
+
+    private static final float DOWNGRADE_FRAME = 1.25f; // Frame p95 over this share of the budget...
+    private static final float DOWNGRADE_PAINT = 0.9f;  // ...or paint p95 over this share
+    private static final float UPGRADE_FRAME = 1.1f;    // Frame p95 under this share...
+    private static final float UPGRADE_PAINT = 0.5f;    // ...and paint p95 under this share
+    private static final int UPGRADE_WINDOWS = 3;
+    private static final int MAX_UPGRADE_WINDOWS = 60;
+
+    private long budgetMicros = 1_000_000 / 60;
+    private Tier tier = Tier.FULL;
+    private int quietWindows = 0;
+    private int upgradeWindows = UPGRADE_WINDOWS;
+    private int windowsSinceUpgrade = Integer.MAX_VALUE;
+    private int changes = 0;
+    private long lastFrameP95 = 0; // The last window's figures, in microseconds
+    private long lastPaintP95 = 0;
+
+    public void setFrameBudget(long frameNanos) {
+        budgetMicros = frameNanos / 1000;
+    }
+
+    // Takes one window's p95 frame and paint times in microseconds; returns
+    // true if the tier changed
+    public boolean windowClosed(long frameP95, long paintP95) {
+        lastFrameP95 = frameP95;
+        lastPaintP95 = paintP95;
+        if (windowsSinceUpgrade < Integer.MAX_VALUE) windowsSinceUpgrade++;
+
+        if (frameP95 > budgetMicros * DOWNGRADE_FRAME || paintP95 > budgetMicros * DOWNGRADE_PAINT) {
+            quietWindows = 0;
+            if (tier.ordinal() == TIERS.length - 1) return false;
+
+            // The last climb did not hold - wait longer before the next one
+            if (windowsSinceUpgrade <= UPGRADE_WINDOWS) {
+                upgradeWindows = Math.min(upgradeWindows * 2, MAX_UPGRADE_WINDOWS);
+            }
+            tier = TIERS[tier.ordinal() + 1];
+            changes++;
+            return true;
+        }
+
+        if (frameP95 <= budgetMicros * UPGRADE_FRAME && paintP95 < budgetMicros * UPGRADE_PAINT) {
+            quietWindows++;
+            if (quietWindows >= upgradeWindows && tier != Tier.FULL) {
+                quietWindows = 0;
+                windowsSinceUpgrade = 0;
+                tier = TIERS[tier.ordinal() - 1];
+                changes++;
+                return true;
+            }
+        } else {
+            quietWindows = 0;
+        }
+        return false;
+    }
+
+    public Tier getTier() { return tier; }
+    public int getChanges() { return changes; }
+    public long getLastFrameP95() { return lastFrameP95; }
+    public long getLastPaintP95() { return lastPaintP95; }
+    public long getBudgetMicros() { return budgetMicros; }
+
+    public boolean drawsDecorations() { return tier.ordinal() < Tier.NO_DECORATIONS.ordinal(); }
+    public boolean antialiasesShapes() { return tier.ordinal() < Tier.NO_ANTIALIAS.ordinal(); }
+    public boolean reducesParticles() { return tier.ordinal() >= Tier.REDUCED_PARTICLES.ordinal(); }
+}
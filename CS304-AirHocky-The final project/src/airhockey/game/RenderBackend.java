@@ -0,0 +1,23 @@
+package airhockey.game;
+
+import java.awt.Component;
+
+// How finished frames reach the screen. The Swing panel paints on the EDT; the
+// Canvas backend renders actively from the simulation thread. Which one is used
+// is chosen at startup (Constants.RENDERER_PROPERTY).
+public interface RenderBackend {
+    // The component placed in the window; it also receives keyboard and mouse input
+    Component getComponent();
+
+    // Draws the newest snapshot and gets it on screen
+    void presentFrame();
+
+    // True if presentFrame must be called on the EDT
+    boolean presentsOnEventThread();
+
+    // Map a point on the component back to scene units, through the inverse
+    // of the scaling presentFrame applies
+    int toWorldX(int x);
+
+    int toWorldY(int y);
+}
@@ -0,0 +1,39 @@
+package airhockey.game;
+
+// Everything GameRenderer draws for one frame, copied out of the simulation
+// by SimulationThread. Once published, a snapshot is only read, never written,
+// until the renderer hands it back by acquiring a newer one.
+public class RenderSnapshot {
+    public long ticks;
+
+    public int puckCount;
+    public final float[] puckX;
+    public final float[] puckY;
+    public final float[] puckVelocityX;
+    public final float[] puckVelocityY;
+
+    public float player1X, player1Y, player1VelocityX, player1VelocityY;
+    public float player2X, player2Y, player2VelocityX, player2VelocityY;
+
+    public int player1Score;
+    public int player2Score;
+    public boolean powerUpActive;
+    public String activePowerUp = "";
+
+    public boolean gameRunning = true;
+    public boolean gamePaused;
+    public boolean mouseControl;
+
+    // Time from an input event being queued to the tick that applied it, in
+    // microseconds, over the last one-second window
+    public long inputLatencyAverage;
+    public long inputLatencyMax;
+    public long inputTime; // nanoTime of the newest input applied to this state
+
+    public RenderSnapshot(int puckCapacity) {
+        puckX = new float[puckCapacity];
+        puckY = new float[puckCapacity];
+        puckVelocityX = new float[puckCapacity];
+        puckVelocityY = new float[puckCapacity];
+    }
+}
@@ -0,0 +1,139 @@
+package airhockey.game;
+
+import airhockey.utils.Constants;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+
+// The offscreen image the scene is drawn into. The scene is laid out in
+// WINDOW_WIDTH x WINDOW_HEIGHT units and the image holds it at the render
+// scale; one scaled blit then fits it to the window, whatever its size,
+// keeping the aspect ratio and filling the bars either side. Mouse positions
+// go back through the same fit, so the game only ever sees scene units.
+public class RenderSurface {
+    private static final int WORLD_WIDTH = Constants.WINDOW_WIDTH;
+    private static final int WORLD_HEIGHT = Constants.WINDOW_HEIGHT;
+
+    private final float scale;
+    private final int width, height; // Internal resolution
+    private VolatileImage volatileImage;
+    private BufferedImage bufferedImage;
+    private boolean drawn = false;
+
+    public RenderSurface(float scale) {
+        this.scale = scale;
+        this.width = Math.round(WORLD_WIDTH * scale);
+        this.height = Math.round(WORLD_HEIGHT * scale);
+    }
+
+    // Makes sure there is an image to draw into; true if what was drawn into
+    // it before is gone and the next frame has to be drawn in full
+    public boolean validate(GraphicsConfiguration gc) {
+        if (bufferedImage == null && gc != null) {
+            int status = volatileImage == null
+                    ? VolatileImage.IMAGE_INCOMPATIBLE : volatileImage.validate(gc);
+            if (status == VolatileImage.IMAGE_OK) return !drawn;
+            if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+                if (volatileImage != null) volatileImage.flush();
+                volatileImage = gc.createCompatibleVolatileImage(width, height);
+            }
+            if (volatileImage != null) {
+                drawn = false;
+                return true;
+            }
+        }
+        if (volatileImage != null) return !drawn;
+
+        // No accelerated surface available - keep a plain image instead
+        if (bufferedImage == null) {
+            bufferedImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            drawn = false;
+        }
+        return !drawn;
+    }
+
+    // Graphics for drawing in scene units
+    public Graphics2D createGraphics() {
+        Graphics2D g2d = volatileImage != null ? volatileImage.createGraphics() : bufferedImage.createGraphics();
+        g2d.scale(scale, scale);
+        return g2d;
+    }
+
+    // Called after drawing: false if the image was lost while drawing into it
+    public boolean finishDrawing(boolean full) {
+        if (volatileImage != null && volatileImage.contentsLost()) {
+            drawn = false;
+            return false;
+        }
+        if (full) drawn = true;
+        return true;
+    }
+
+    // True if the image holds a whole frame that can be shown as it is
+    public boolean hasFrame() {
+        return drawn && (volatileImage == null || !volatileImage.contentsLost());
+    }
+
+    // Scales the image into a component of the given size, bars included
+    public void present(Graphics2D g2d, int componentWidth, int componentHeight, Color background) {
+        float fit = fit(componentWidth, componentHeight);
+        int w = Math.round(WORLD_WIDTH * fit);
+        int h = Math.round(WORLD_HEIGHT * fit);
+        int x = offsetX(componentWidth, fit);
+        int y = offsetY(componentHeight, fit);
+
+        g2d.setColor(background);
+        if (x > 0) {
+            g2d.fillRect(0, 0, x, componentHeight);
+            g2d.fillRect(x + w, 0, componentWidth - x - w, componentHeight);
+        }
+        if (y > 0) {
+            g2d.fillRect(0, 0, componentWidth, y);
+            g2d.fillRect(0, y + h, componentWidth, componentHeight - y - h);
+        }
+
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g2d.drawImage(volatileImage != null ? volatileImage : bufferedImage, x, y, w, h, null);
+    }
+
+    // The part of the component showing the scene rectangle x, y, w, h, with
+    // room for the filter reaching one image pixel past its edges
+    public Rectangle toComponent(int x, int y, int w, int h, int componentWidth, int componentHeight,
+                                 Rectangle out) {
+        float fit = fit(componentWidth, componentHeight);
+        int margin = (int) Math.ceil(fit / scale) + 1;
+        int left = offsetX(componentWidth, fit) + (int) Math.floor(x * fit) - margin;
+        int top = offsetY(componentHeight, fit) + (int) Math.floor(y * fit) - margin;
+        out.setBounds(left, top, (int) Math.ceil(w * fit) + margin * 2, (int) Math.ceil(h * fit) + margin * 2);
+        return out;
+    }
+
+    public int toWorldX(int componentX, int componentWidth, int componentHeight) {
+        float fit = fit(componentWidth, componentHeight);
+        return Math.round((componentX - offsetX(componentWidth, fit)) / fit);
+    }
+
+    public int toWorldY(int componentY, int componentWidth, int componentHeight) {
+        float fit = fit(componentWidth, componentHeight);
+        return Math.round((componentY - offsetY(componentHeight, fit)) / fit);
+    }
+
+    // Component pixels per scene unit
+    private static float fit(int componentWidth, int componentHeight) {
+        if (componentWidth <= 0 || componentHeight <= 0) return 1.0f;
+        return Math.min((float) componentWidth / WORLD_WIDTH, (float) componentHeight / WORLD_HEIGHT);
+    }
+
+    private static int offsetX(int componentWidth, float fit) {
+        return (componentWidth - Math.round(WORLD_WIDTH * fit)) / 2;
+    }
+
+    private static int offsetY(int componentHeight, float fit) {
+        return (componentHeight - Math.round(WORLD_HEIGHT * fit)) / 2;
+    }
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+}
@@ -7,6 +7,8 @@ import java.awt.*;
 public class SettingsPanel extends JPanel {
     private JComboBox<String> difficultyCombo;
     private JComboBox<String> themeCombo;
+    private JComboBox<String> tickRateCombo;
+    private JComboBox<String> frameRateCombo;
     private JCheckBox soundCheck;
     private JCheckBox musicCheck;
     private JSlider volumeSlider;
@@ -23,44 +25,24 @@ public class SettingsPanel extends JPanel {
     private void initUI() {
         setLayout(new BorderLayout());
 
-        try {
-            // Use a simpler approach without custom layout
-            ImageIcon bg = null;
-            try {
-                bg = new ImageIcon(getClass().getResource("/images/blackboard_1205-357.jpg"));
-            } catch (Exception e1) {
-                try {
-                    bg = new ImageIcon(getClass().getResource("/images/back.png"));
-                } catch (Exception e2) {
-                    try {
-                        bg = new ImageIcon(getClass().getResource("/images/bakgrounf.png"));
-                    } catch (Exception e3) {
-                    }
+        // The menu background, already decoded and scaled by the asset loader
+        Image bg = GameEngine.getMenuBackground();
+        if (bg != null) {
+            JPanel backgroundPanel = new JPanel(new BorderLayout()) {
+                @Override
+                protected void paintComponent(Graphics g) {
+                    super.paintComponent(g);
+                    g.drawImage(bg, 0, 0, getWidth(), getHeight(), this);
                 }
-            }
+            };
+            backgroundPanel.setLayout(new BorderLayout());
 
-            if (bg != null && bg.getImage() != null) {
-                ImageIcon finalBg = bg;
-                JPanel backgroundPanel = new JPanel(new BorderLayout()) {
-                    @Override
-                    protected void paintComponent(Graphics g) {
-                        super.paintComponent(g);
-                        Image scaledImage = finalBg.getImage().getScaledInstance(
-                                getWidth(), getHeight(), Image.SCALE_SMOOTH);
-                        g.drawImage(scaledImage, 0, 0, this);
-                    }
-                };
-                backgroundPanel.setLayout(new BorderLayout());
-
-                JPanel contentPanel = createContentPanel();
-                backgroundPanel.add(contentPanel, BorderLayout.CENTER);
+            JPanel contentPanel = createContentPanel();
+            backgroundPanel.add(contentPanel, BorderLayout.CENTER);
 
-                setLayout(new BorderLayout());
-                add(backgroundPanel, BorderLayout.CENTER);
-                return;
-            }
-        } catch (Exception e) {
-            System.out.println("Background image error: " + e.getMessage());
+            setLayout(new BorderLayout());
+            add(backgroundPanel, BorderLayout.CENTER);
+            return;
         }
 
         setBackground(new Color(30, 35, 50));
@@ -121,6 +103,26 @@ public class SettingsPanel extends JPanel {
         themeCombo.setSelectedIndex(1);
         settingsPanel.add(themeCombo, gbc);
 
+        // Simulation rate setting
+        addSettingLabel("Simulation Rate:", settingsPanel, gbc);
+        String[] tickRates = new String[Constants.TICK_RATES.length];
+        for (int i = 0; i < tickRates.length; i++) {
+            tickRates[i] = Constants.TICK_RATES[i] + " Hz";
+        }
+        tickRateCombo = createStyledComboBox(tickRates);
+        tickRateCombo.setSelectedIndex(0);
+        settingsPanel.add(tickRateCombo, gbc);
+
+        // Frame rate setting
+        addSettingLabel("Frame Rate:", settingsPanel, gbc);
+        String[] frameRates = new String[Constants.FRAME_RATES.length];
+        for (int i = 0; i < frameRates.length; i++) {
+            frameRates[i] = Constants.FRAME_RATES[i] == 0 ? "Display refresh" : Constants.FRAME_RATES[i] + " FPS";
+        }
+        frameRateCombo = createStyledComboBox(frameRates);
+        frameRateCombo.setSelectedIndex(0);
+        settingsPanel.add(frameRateCombo, gbc);
+
         // Sound settings
         soundCheck = createStyledCheckBox(" Enable Sound Effects", true);
         musicCheck = createStyledCheckBox(" Enable Background Music", true);
@@ -384,6 +386,17 @@ public class SettingsPanel extends JPanel {
         }
     }
 
+    public int getTickRate() {
+        int index = tickRateCombo != null ? tickRateCombo.getSelectedIndex() : -1;
+        return index >= 0 ? Constants.TICK_RATES[index] : Constants.DEFAULT_TICK_RATE;
+    }
+
+    // 0 means follow the display refresh rate
+    public int getFrameRate() {
+        int index = frameRateCombo != null ? frameRateCombo.getSelectedIndex() : -1;
+        return index >= 0 ? Constants.FRAME_RATES[index] : Constants.DEFAULT_FRAME_RATE;
+    }
+
     public boolean isSoundEnabled() {
         return soundCheck != null && soundCheck.isSelected();
     }
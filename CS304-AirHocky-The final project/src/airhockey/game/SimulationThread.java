@@ -0,0 +1,132 @@
+package airhockey.game;
+
+import airhockey.utils.Constants;
+
+import javax.swing.SwingUtilities;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+// Runs the match on its own thread at the fixed tick rate and paces frames.
+// After each batch of ticks it publishes a render snapshot. On each frame
+// deadline the newest one is presented: the Swing backend is asked to paint it
+// on the EDT, the Canvas backend draws it right here. It never waits on the
+// EDT, so a slow paint cannot hold back physics and a slow tick cannot freeze
+// the window.
+public class SimulationThread extends Thread {
+    private final GameController controller;
+    private final FixedTimestep timestep;
+    private final FramePacer pacer;
+    private final RenderBackend backend;
+    private final FramePacer idlePacer = new FramePacer(Constants.IDLE_FRAME_RATE);
+    private volatile boolean running = true;
+
+    // At most one present is queued on the EDT; a busy EDT drops frames instead of piling them up
+    private final AtomicBoolean presentPending = new AtomicBoolean(false);
+    private final Runnable presentTask;
+
+    public SimulationThread(GameController controller, RenderBackend backend, int tickRate, int targetFps) {
+        super("Simulation");
+        setDaemon(true);
+        this.controller = controller;
+        this.timestep = new FixedTimestep(tickRate, Constants.MAX_CATCH_UP_STEPS);
+        this.pacer = new FramePacer(targetFps);
+        this.backend = backend;
+        this.presentTask = () -> {
+            presentPending.set(false);
+            backend.presentFrame();
+        };
+    }
+
+    public long getFrameNanos() {
+        return pacer.getFrameNanos();
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            if (controller.isIdle()) {
+                idle();
+                continue;
+            }
+
+            int steps = timestep.advance(System.nanoTime());
+            for (int i = 0; i < steps; i++) {
+                controller.update(timestep.getStepSeconds());
+            }
+            if (steps > 0) {
+                controller.publishFrame();
+            }
+
+            long now = System.nanoTime();
+            if (pacer.isFrameDue(now)) {
+                pacer.frameStarted(now);
+                requestPresent();
+            }
+
+            // Frame deadlines get a precise wait; ticks only need a park, as
+            // the timestep accumulator absorbs a late wake-up
+            long untilTick = timestep.nanosUntilNextStep(now);
+            long untilFrame = pacer.getNextFrame() - now;
+            if (untilFrame <= untilTick) {
+                FramePacer.sleepUntil(pacer.getNextFrame());
+            } else if (untilTick > 0) {
+                LockSupport.parkNanos(this, untilTick);
+            }
+        }
+    }
+
+    // Paused or game over: no ticks, and frames only at IDLE_FRAME_RATE for the
+    // blinking overlay text. Input unparks the thread; a state change (pause,
+    // restart) is shown at once, and a resume goes straight back to full rate.
+    private void idle() {
+        InputQueue inputQueue = controller.getInputQueue();
+        int state = controller.getGameState();
+        controller.publishFrame();
+        requestPresent();
+
+        inputQueue.setWaiter(this);
+        try {
+            while (running && controller.isIdle()) {
+                long now = System.nanoTime();
+                if (idlePacer.isFrameDue(now)) {
+                    idlePacer.frameStarted(now);
+                    requestPresent();
+                }
+                LockSupport.parkNanos(this, idlePacer.getNextFrame() - now);
+
+                if (controller.pollInput() > 0) {
+                    controller.publishFrame();
+                    if (controller.getGameState() != state) {
+                        state = controller.getGameState();
+                        requestPresent();
+                    }
+                }
+            }
+        } finally {
+            inputQueue.setWaiter(null);
+        }
+
+        // Time spent idle is not a backlog of ticks to catch up on
+        timestep.reset();
+    }
+
+    // Swing frames are handed to the EDT; active rendering happens right here
+    private void requestPresent() {
+        if (!backend.presentsOnEventThread()) {
+            backend.presentFrame();
+        } else if (presentPending.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(presentTask);
+        }
+    }
+
+    // Stops the loop and waits briefly for the current tick to finish
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(this);
+        try {
+            join(500);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
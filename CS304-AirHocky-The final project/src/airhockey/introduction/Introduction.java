@@ -1,43 +1,36 @@
 package airhockey.introduction;
 
+import airhockey.utils.Constants;
+import airhockey.utils.HudText;
+import airhockey.utils.RandomStream;
+import airhockey.utils.RenderCache;
+import airhockey.utils.SpriteAtlas;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
-import java.util.ArrayList;
-import java.util.List;
+import java.awt.image.BufferedImage;
 
+// The slides shown before the game. Everything that does not move - the
+// background gradient, the glowing title, the slide text - is drawn once into
+// images; the stars are parallel arrays drawn from pre-rendered sprites. One
+// timer advances the stars and the fade and repaints, and painting a frame
+// allocates nothing.
 public class Introduction {
-    private static Timer animationTimer;
-    private static float alpha = 0f;
-    private static int slideIndex = 0;
-    private static List<Star> stars = new ArrayList<>();
-
-    static class Star {
-        float x, y;
-        float size;
-        float speed;
-        float brightness;
-
-        Star(float x, float y) {
-            this.x = x;
-            this.y = y;
-            this.size = 1 + (float)Math.random() * 3;
-            this.speed = 0.5f + (float)Math.random() * 2;
-            this.brightness = 0.3f + (float)Math.random() * 0.7f;
-        }
+    private static final int FRAME_MS = 30;
 
-        void update() {
-            y += speed;
-            if (y > 700) {
-                y = -20;
-                x = (float)Math.random() * 1200;
-            }
+    private static final int STAR_COUNT = 100;
+    private static final int MAX_STAR_SIZE = 3;
+    private static final int STAR_LEVELS = 16;   // Brightness steps with a sprite each
+    private static final int TWINKLE_STEPS = 256; // Frames per twinkle cycle
+    private static final int SPRITE_STAR = 6;
+    private static final int SPRITE_DOT = 7;
+    private static final int SPRITE_RING = 8;
+    private static final int DOT_SIZE = 15;
 
-            brightness = 0.3f + 0.7f * (float)(0.5f + 0.5f * Math.sin(System.currentTimeMillis() * 0.001 + x));
-        }
-    }
+    private static final String TITLE = " AIR HOCKEY 2D ";
+    private static final int TITLE_GLOW = 10;
 
-    private static String[] slides = {
+    private static final String[] SLIDES = {
             " WELCOME TO AIR HOCKEY 2D",
             "A classic arcade game brought to life",
             "Experience realistic physics and smooth controls",
@@ -46,156 +39,263 @@ public class Introduction {
             "PRESS SPACE TO BEGIN"
     };
 
-    public static void show() {
-        // Initialize stars
-        for (int i = 0; i < 100; i++) {
-            stars.add(new Star((float)Math.random() * 1200,
-                    (float)Math.random() * 700));
+    // Brightness level for each step of the twinkle cycle, one sine wave
+    private static final int[] TWINKLE = new int[TWINKLE_STEPS];
+    static {
+        for (int i = 0; i < TWINKLE_STEPS; i++) {
+            float wave = 0.5f + 0.5f * (float)Math.sin(i * 2 * Math.PI / TWINKLE_STEPS);
+            TWINKLE[i] = Math.round((0.3f + 0.7f * wave) * (STAR_LEVELS - 1));
         }
+    }
 
-        JFrame introFrame = new JFrame("Air Hockey 2D - Introduction");
-        introFrame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        introFrame.setResizable(false);
-        introFrame.setSize(1200, 700);
-        introFrame.setLocationRelativeTo(null);
+    private JFrame introFrame;
+    private final JPanel introPanel;
+    private final Timer timer;
+    private float alpha = 0f;
+    private int slideIndex = 0;
+    private int tick = 0;
+    private boolean finished = false;
 
-        JPanel introPanel = new JPanel() {
-            @Override
-            protected void paintComponent(Graphics g) {
-                super.paintComponent(g);
-                Graphics2D g2d = (Graphics2D) g;
-
-                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
-                        RenderingHints.VALUE_ANTIALIAS_ON);
-
-                // Draw space background
-                GradientPaint spaceGradient = new GradientPaint(
-                        0, 0, new Color(10, 10, 30),
-                        0, getHeight(), new Color(5, 5, 20)
-                );
-                g2d.setPaint(spaceGradient);
-                g2d.fillRect(0, 0, getWidth(), getHeight());
-
-                // Draw stars
-                for (Star star : stars) {
-                    g2d.setColor(new Color(255, 255, 255, (int)(star.brightness * 255)));
-                    g2d.fillOval((int)star.x, (int)star.y, (int)star.size, (int)star.size);
-                }
+    private final float[] starX = new float[STAR_COUNT];
+    private final float[] starY = new float[STAR_COUNT];
+    private final float[] starSpeed = new float[STAR_COUNT];
+    private final int[] starSize = new int[STAR_COUNT];
+    private final int[] starPhase = new int[STAR_COUNT];
+    private final RandomStream random = new RandomStream(System.nanoTime());
+    private final SpriteAtlas.Sprite[] starSprites = new SpriteAtlas.Sprite[(MAX_STAR_SIZE + 1) * STAR_LEVELS];
+    private final SpriteAtlas.Sprite[] dotSprites = new SpriteAtlas.Sprite[2 * STAR_LEVELS];
 
-                // Draw title with glow effect
-                g2d.setFont(new Font("Impact", Font.BOLD, 72));
-                String title = " AIR HOCKEY 2D ";
-                FontMetrics fm = g2d.getFontMetrics();
-                int titleWidth = fm.stringWidth(title);
-
-                for (int i = 10; i > 0; i--) {
-                    g2d.setColor(new Color(0, 100, 255, 10 * i));
-                    g2d.drawString(title,
-                            (getWidth() - titleWidth)/2 + i,
-                            150 + i);
-                }
+    private BufferedImage background;
+    private BufferedImage titleImage;
+    private int titleX, titleY; // Where the title image goes, glow included
+    private final HudText slideText = new HudText(RenderCache.font("Arial", Font.BOLD, 36), Color.WHITE)
+            .shadow(RenderCache.color(0, 0, 0, 128), 2);
+    private final HudText instructionText = new HudText(RenderCache.font("Arial", Font.PLAIN, 16),
+            RenderCache.color(200, 200, 255));
 
-                // Main title
-                GradientPaint titleGradient = new GradientPaint(
-                        (getWidth() - titleWidth)/2, 140, new Color(30, 144, 255),
-                        (getWidth() - titleWidth)/2, 160, new Color(100, 200, 255)
-                );
-                g2d.setPaint(titleGradient);
-                g2d.drawString(title,
-                        (getWidth() - titleWidth)/2,
-                        150);
-
-                // Draw current slide with fade effect
-                if (slideIndex < slides.length) {
-                    g2d.setColor(new Color(255, 255, 255, (int)(255 * alpha)));
-                    g2d.setFont(new Font("Arial", Font.BOLD, 36));
-
-                    String slideText = slides[slideIndex];
-                    FontMetrics sm = g2d.getFontMetrics();
-                    int slideWidth = sm.stringWidth(slideText);
-
-                    // Text shadow
-                    g2d.setColor(new Color(0, 0, 0, (int)(255 * alpha * 0.5)));
-                    g2d.drawString(slideText,
-                            (getWidth() - slideWidth)/2 + 2,
-                            getHeight()/2 + 2);
-
-                    // Main text
-                    g2d.setColor(new Color(255, 255, 255, (int)(255 * alpha)));
-                    g2d.drawString(slideText,
-                            (getWidth() - slideWidth)/2,
-                            getHeight()/2);
-                }
+    // The game's images and sounds load in the background while the slides show
+    public static void show() {
+        airhockey.game.GameEngine.preloadAssets();
+        new Introduction().start();
+    }
 
-                // Draw animated progress dots
-                g2d.setColor(Color.WHITE);
-                for (int i = 0; i < slides.length; i++) {
-                    float dotAlpha = 0.3f;
-                    if (i == slideIndex) {
-                        // Animate current dot
-                        float pulse = 0.5f + 0.5f * (float)Math.sin(System.currentTimeMillis() * 0.003);
-                        dotAlpha = 0.3f + 0.7f * pulse;
-                        g2d.setColor(new Color(30, 144, 255, (int)(dotAlpha * 255)));
-                        g2d.fillOval(550 + i * 30, 600, 15, 15);
-                    }
-                    g2d.setColor(new Color(255, 255, 255, (int)(dotAlpha * 255)));
-                    g2d.drawOval(550 + i * 30, 600, 15, 15);
-                }
+    private Introduction() {
+        for (int i = 0; i < STAR_COUNT; i++) {
+            starX[i] = (float)random.nextDouble() * Constants.WINDOW_WIDTH;
+            starY[i] = (float)random.nextDouble() * Constants.WINDOW_HEIGHT;
+            starSize[i] = 1 + random.nextInt(MAX_STAR_SIZE);
+            starSpeed[i] = 0.5f + (float)random.nextDouble() * 2;
+            starPhase[i] = random.nextInt(TWINKLE_STEPS);
+        }
+        instructionText.set("Use SPACE to continue or ESC to skip");
 
-                // Draw instructions with blink effect
-                float blink = 0.5f + 0.5f * (float)Math.sin(System.currentTimeMillis() * 0.002);
-                g2d.setFont(new Font("Arial", Font.PLAIN, 16));
-                g2d.setColor(new Color(200, 200, 255, (int)(blink * 255)));
-                g2d.drawString("Use SPACE to continue or ESC to skip", 450, 650);
+        introPanel = new JPanel() {
+            @Override
+            protected void paintComponent(Graphics g) {
+                paintFrame((Graphics2D) g, getWidth(), getHeight());
             }
         };
 
-        // Update stars animation
-        Timer starTimer = new Timer(30, e -> {
-            for (Star star : stars) {
-                star.update();
-            }
-            introPanel.repaint();
-        });
-        starTimer.start();
+        timer = new Timer(FRAME_MS, e -> step());
+    }
+
+    private void start() {
+        introFrame = new JFrame("Air Hockey 2D - Introduction");
+        introFrame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        introFrame.setResizable(false);
+        introFrame.setSize(Constants.WINDOW_WIDTH, Constants.WINDOW_HEIGHT);
+        introFrame.setLocationRelativeTo(null);
 
         introPanel.addKeyListener(new KeyAdapter() {
             @Override
             public void keyPressed(KeyEvent e) {
                 if (e.getKeyCode() == KeyEvent.VK_SPACE) {
                     slideIndex++;
-                    if (slideIndex >= slides.length) {
-                        starTimer.stop();
-                        animationTimer.stop();
-                        introFrame.dispose();
-                        startGame();
+                    if (slideIndex >= SLIDES.length) {
+                        finish();
                     } else {
                         alpha = 0f;
-                        animationTimer.start();
                     }
                 } else if (e.getKeyCode() == KeyEvent.VK_ESCAPE) {
-                    starTimer.stop();
-                    animationTimer.stop();
-                    introFrame.dispose();
-                    startGame();
+                    finish();
                 }
             }
         });
+        introFrame.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                timer.stop();
+            }
+        });
 
         introFrame.add(introPanel);
         introFrame.setVisible(true);
         introPanel.requestFocusInWindow();
+        timer.start();
+    }
 
-        // Start fade animation
-        animationTimer = new Timer(30, e -> {
-            alpha += 0.03f;
-            if (alpha >= 1.0f) {
-                alpha = 1.0f;
-                animationTimer.stop();
+    // Moves the stars, fades the slide in and repaints
+    private void step() {
+        tick++;
+        for (int i = 0; i < STAR_COUNT; i++) {
+            starY[i] += starSpeed[i];
+            if (starY[i] > Constants.WINDOW_HEIGHT) {
+                starY[i] = -20;
+                starX[i] = (float)random.nextDouble() * Constants.WINDOW_WIDTH;
             }
-            introPanel.repaint();
-        });
-        animationTimer.start();
+        }
+        if (alpha < 1.0f) {
+            alpha = Math.min(1.0f, alpha + 0.03f);
+        }
+        introPanel.repaint();
+    }
+
+    private void finish() {
+        if (finished) return;
+        finished = true;
+
+        timer.stop();
+        introFrame.dispose();
+        startGame();
+    }
+
+    private void paintFrame(Graphics2D g2d, int width, int height) {
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                RenderingHints.VALUE_ANTIALIAS_ON);
+
+        // Space background
+        if (background == null || background.getWidth() != width || background.getHeight() != height) {
+            background = paintBackground(width, height);
+        }
+        g2d.drawImage(background, 0, 0, null);
+
+        // Stars
+        SpriteAtlas atlas = SpriteAtlas.shared();
+        for (int i = 0; i < STAR_COUNT; i++) {
+            int level = TWINKLE[(tick + starPhase[i]) & (TWINKLE_STEPS - 1)];
+            int slot = starSize[i] * STAR_LEVELS + level;
+            SpriteAtlas.Sprite sprite = starSprites[slot];
+            if (sprite == null) {
+                sprite = circleSprite(atlas, SPRITE_STAR, 0xFFFFFF, starSize[i], level, true);
+                starSprites[slot] = sprite;
+            }
+            atlas.draw(g2d, sprite, (int)starX[i], (int)starY[i]);
+        }
+
+        // Title with its glow
+        if (titleImage == null) {
+            paintTitle(width);
+        }
+        g2d.drawImage(titleImage, titleX, titleY, null);
+
+        // Current slide, fading in
+        if (slideIndex < SLIDES.length) {
+            if (!slideText.isCurrent(slideIndex)) {
+                slideText.set(slideIndex, SLIDES[slideIndex]);
+            }
+            slideText.draw(g2d, (width - slideText.getWidth())/2, height/2, alpha);
+        }
+
+        // Progress dots, the current one pulsing
+        float pulse = 0.5f + 0.5f * (float)Math.sin(System.currentTimeMillis() * 0.003);
+        int dimLevel = Math.round(0.3f * (STAR_LEVELS - 1));
+        int pulseLevel = Math.round((0.3f + 0.7f * pulse) * (STAR_LEVELS - 1));
+        for (int i = 0; i < SLIDES.length; i++) {
+            int x = 550 + i * 30;
+            if (i == slideIndex) {
+                atlas.draw(g2d, dotSprite(atlas, true, pulseLevel), x, 600);
+                atlas.draw(g2d, dotSprite(atlas, false, pulseLevel), x, 600);
+            } else {
+                atlas.draw(g2d, dotSprite(atlas, false, dimLevel), x, 600);
+            }
+        }
+
+        // Instructions with blink effect
+        float blink = 0.5f + 0.5f * (float)Math.sin(System.currentTimeMillis() * 0.002);
+        instructionText.draw(g2d, 450, 650, blink);
+    }
+
+    private BufferedImage paintBackground(int width, int height) {
+        BufferedImage image = introPanel.getGraphicsConfiguration() != null
+                ? introPanel.getGraphicsConfiguration().createCompatibleImage(width, height)
+                : new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setPaint(new GradientPaint(
+                0, 0, new Color(10, 10, 30),
+                0, height, new Color(5, 5, 20)
+        ));
+        g2d.fillRect(0, 0, width, height);
+        g2d.dispose();
+        return image;
+    }
+
+    // The ten offset glow passes and the gradient title, baked into one image
+    private void paintTitle(int width) {
+        Font font = RenderCache.font("Impact", Font.BOLD, 72);
+        FontMetrics fm = introPanel.getFontMetrics(font);
+        int titleWidth = fm.stringWidth(TITLE);
+        int pad = 4;
+
+        titleImage = new BufferedImage(titleWidth + TITLE_GLOW + pad * 2,
+                fm.getAscent() + fm.getDescent() + TITLE_GLOW + pad * 2, BufferedImage.TYPE_INT_ARGB_PRE);
+        int left = (width - titleWidth)/2;
+        titleX = left - pad;
+        titleY = 150 - fm.getAscent() - pad;
+
+        Graphics2D g2d = titleImage.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+                RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g2d.setFont(font);
+        g2d.translate(-titleX, -titleY);
+
+        for (int i = TITLE_GLOW; i > 0; i--) {
+            g2d.setColor(new Color(0, 100, 255, 10 * i));
+            g2d.drawString(TITLE, left + i, 150 + i);
+        }
+
+        // Main title
+        g2d.setPaint(new GradientPaint(
+                left, 140, new Color(30, 144, 255),
+                left, 160, new Color(100, 200, 255)
+        ));
+        g2d.drawString(TITLE, left, 150);
+        g2d.dispose();
+    }
+
+    // A progress dot: the blue fill or the white ring
+    private SpriteAtlas.Sprite dotSprite(SpriteAtlas atlas, boolean filled, int level) {
+        int slot = (filled ? STAR_LEVELS : 0) + level;
+        SpriteAtlas.Sprite sprite = dotSprites[slot];
+        if (sprite == null) {
+            sprite = filled
+                    ? circleSprite(atlas, SPRITE_DOT, 0x1E90FF, DOT_SIZE, level, true)
+                    : circleSprite(atlas, SPRITE_RING, 0xFFFFFF, DOT_SIZE, level, false);
+            dotSprites[slot] = sprite;
+        }
+        return sprite;
+    }
+
+    // A filled or outlined circle at one of STAR_LEVELS alphas, anchored at
+    // its top-left corner like fillOval/drawOval
+    private static SpriteAtlas.Sprite circleSprite(SpriteAtlas atlas, int kind, int rgb, int size,
+                                                   int level, boolean filled) {
+        long key = SpriteAtlas.key(kind, rgb, size, level);
+        SpriteAtlas.Sprite sprite = atlas.find(key);
+        if (sprite == null) {
+            Color color = RenderCache.color(rgb >> 16 & 0xFF, rgb >> 8 & 0xFF, rgb & 0xFF,
+                    level * 255 / (STAR_LEVELS - 1));
+            sprite = atlas.add(key, 1, 1, size + 3, size + 3, g -> {
+                g.setColor(color);
+                if (filled) {
+                    g.fillOval(0, 0, size, size);
+                } else {
+                    g.drawOval(0, 0, size, size);
+                }
+            });
+        }
+        return sprite;
     }
 
     private static void startGame() {
@@ -204,4 +304,4 @@ public class Introduction {
             engine.start();
         });
     }
-}
\ No newline at end of file
+}
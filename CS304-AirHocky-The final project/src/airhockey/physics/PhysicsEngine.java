@@ -4,45 +4,343 @@ import airhockey.core.Mallet;
 import airhockey.core.Puck;
 import airhockey.utils.Constants;
 
-public class PhysicsEngine {
+// strictfp and Math.sqrt (always correctly rounded) keep every result
+// bit-identical across JVMs, which seeded matches rely on. From Java 17 all
+// floating point is strict and javac warns that strictfp is redundant; it
+// is still needed on the Java 8 the project targets.
+@SuppressWarnings("strictfp")
+public strictfp class PhysicsEngine {
+    // Returned by the sweep tests when nothing is hit within the tick
+    public static final float NO_HIT = 2f;
 
+    private static final int MAX_IMPACTS_PER_TICK = 8;
+    private static final float PUCK_RESTITUTION = 0.95f;
+
+    private static final int GOAL_LEFT = Constants.TABLE_X + Constants.TABLE_WIDTH/2 - Constants.GOAL_WIDTH/2;
+    private static final int GOAL_RIGHT = Constants.TABLE_X + Constants.TABLE_WIDTH/2 + Constants.GOAL_WIDTH/2;
+    private static final int TABLE_RIGHT = Constants.TABLE_X + Constants.TABLE_WIDTH;
+    private static final int TABLE_BOTTOM = Constants.TABLE_Y + Constants.TABLE_HEIGHT;
+
+    // Wall segments (A -> B) with their inward normals; the goal mouths are left open
+    private static final float[] WALL_AX = {Constants.TABLE_X, TABLE_RIGHT, Constants.TABLE_X, GOAL_RIGHT, Constants.TABLE_X, GOAL_RIGHT};
+    private static final float[] WALL_AY = {Constants.TABLE_Y, Constants.TABLE_Y, Constants.TABLE_Y, Constants.TABLE_Y, TABLE_BOTTOM, TABLE_BOTTOM};
+    private static final float[] WALL_BX = {Constants.TABLE_X, TABLE_RIGHT, GOAL_LEFT, TABLE_RIGHT, GOAL_LEFT, TABLE_RIGHT};
+    private static final float[] WALL_BY = {TABLE_BOTTOM, TABLE_BOTTOM, Constants.TABLE_Y, Constants.TABLE_Y, TABLE_BOTTOM, TABLE_BOTTOM};
+    private static final float[] WALL_NX = {1, -1, 0, 0, 0, 0};
+    private static final float[] WALL_NY = {0, 0, 1, 1, -1, -1};
+
+    // Goal posts at the ends of each goal mouth
+    private static final float[] POST_X = {GOAL_LEFT, GOAL_RIGHT, GOAL_LEFT, GOAL_RIGHT};
+    private static final float[] POST_Y = {Constants.TABLE_Y, Constants.TABLE_Y, TABLE_BOTTOM, TABLE_BOTTOM};
+
+    private static final int HIT_NONE = 0;
+    private static final int HIT_WALL = 1;
+    private static final int HIT_POST = 2;
+    private static final int HIT_MALLET = 3;
+
+    public interface ImpactListener {
+        void onMalletHit(Puck puck, Mallet mallet);
+    }
+
+    // Compares squared distances so the common no-contact case needs no sqrt
     public static boolean checkCollision(Puck puck, Mallet mallet) {
         float dx = puck.getX() - mallet.getX();
         float dy = puck.getY() - mallet.getY();
-        float distance = (float)Math.sqrt(dx * dx + dy * dy);
-        return distance < (puck.getRadius() + mallet.getRadius());
+        float minDistance = puck.getRadius() + mallet.getRadius();
+        return dx * dx + dy * dy < minDistance * minDistance;
     }
 
     public static void handleCollision(Puck puck, Mallet mallet) {
-        float dx = puck.getX() - mallet.getX();
-        float dy = puck.getY() - mallet.getY();
-        float distance = (float)Math.sqrt(dx * dx + dy * dy);
+        float px = puck.getX();
+        float py = puck.getY();
+        float dx = px - mallet.getX();
+        float dy = py - mallet.getY();
+        float distanceSq = dx * dx + dy * dy;
 
-        if (distance == 0) return;
+        if (distanceSq == 0) return;
 
+        float distance = (float)Math.sqrt(distanceSq);
         float nx = dx / distance;
         float ny = dy / distance;
 
-        float relVelX = puck.getVelocityX() - mallet.getVelocityX();
-        float relVelY = puck.getVelocityY() - mallet.getVelocityY();
+        if (!applyMalletImpulse(puck, nx, ny, mallet.getVelocityX(), mallet.getVelocityY())) return;
+
+        float overlap = (puck.getRadius() + mallet.getRadius()) - distance;
+        if (overlap > 0) {
+            puck.setX(px + nx * overlap * 1.2f);
+            puck.setY(py + ny * overlap * 1.2f);
+        }
+    }
+
+    // Pushes the puck out of a mallet it still overlaps without changing its velocity
+    public static void separate(Puck puck, Mallet mallet) {
+        float px = puck.getX();
+        float py = puck.getY();
+        float dx = px - mallet.getX();
+        float dy = py - mallet.getY();
+        float distanceSq = dx * dx + dy * dy;
+        float minDistance = puck.getRadius() + mallet.getRadius();
 
-        float speedAlongNormal = relVelX * nx + relVelY * ny;
+        if (distanceSq == 0 || distanceSq >= minDistance * minDistance) return;
 
-        if (speedAlongNormal > 0) return;
+        float distance = (float)Math.sqrt(distanceSq);
+        float overlap = minDistance - distance;
+        puck.setX(px + dx / distance * overlap);
+        puck.setY(py + dy / distance * overlap);
+    }
 
-        float impulse = -speedAlongNormal * 1.4f;
+    private static boolean applyMalletImpulse(Puck puck, float nx, float ny, float malletVx, float malletVy) {
+        float vx = puck.getVelocityX();
+        float vy = puck.getVelocityY();
+        float speedAlongNormal = (vx - malletVx) * nx + (vy - malletVy) * ny;
 
-        puck.setVelocityX(puck.getVelocityX() + nx * impulse);
-        puck.setVelocityY(puck.getVelocityY() + ny * impulse);
+        if (speedAlongNormal > 0) return false;
 
-        puck.setVelocityX(puck.getVelocityX() + mallet.getVelocityX() * 0.6f);
-        puck.setVelocityY(puck.getVelocityY() + mallet.getVelocityY() * 0.6f);
+        float impulse = -speedAlongNormal * Constants.MALLET_BOUNCE;
 
-        float overlap = (puck.getRadius() + mallet.getRadius()) - distance;
-        if (overlap > 0) {
-            puck.setX(puck.getX() + nx * overlap * 1.2f);
-            puck.setY(puck.getY() + ny * overlap * 1.2f);
+        puck.setVelocityX(vx + nx * impulse + malletVx * Constants.MALLET_CARRY);
+        puck.setVelocityY(vy + ny * impulse + malletVy * Constants.MALLET_CARRY);
+        return true;
+    }
+
+    // Moves the puck through one tick along its path, resolving mallet, wall and
+    // goal post impacts in the order they happen instead of testing overlap at
+    // the end of the tick, so fast shots cannot tunnel through anything
+    public static void movePuck(Puck puck, Mallet[] mallets, float dt, ImpactListener listener) {
+        float step = dt * Constants.BASE_TICK_RATE;
+        float radius = puck.getRadius();
+        float px = puck.getX();
+        float py = puck.getY();
+        float t = 0; // Fraction of the tick already simulated
+        int malletsHit = 0; // Each mallet strikes at most once per tick
+
+        for (int impact = 0; impact < MAX_IMPACTS_PER_TICK && t < 1; impact++) {
+            float remaining = 1 - t;
+            float dx = puck.getVelocityX() * step * remaining;
+            float dy = puck.getVelocityY() * step * remaining;
+
+            float earliest = NO_HIT;
+            int hitType = HIT_NONE;
+            int hitIndex = -1;
+
+            // Walls and posts all lie on the table border, so a path that stays
+            // clear of it (the usual case) can skip those sweeps entirely
+            if (nearBorder(px, py, dx, dy, radius)) {
+                for (int i = 0; i < WALL_AX.length; i++) {
+                    float toi = sweepCircleSegment(px, py, dx, dy, radius,
+                            WALL_AX[i], WALL_AY[i], WALL_BX[i], WALL_BY[i], WALL_NX[i], WALL_NY[i]);
+                    if (toi < earliest) {
+                        earliest = toi;
+                        hitType = HIT_WALL;
+                        hitIndex = i;
+                    }
+                }
+
+                for (int i = 0; i < POST_X.length; i++) {
+                    float toi = sweepCircles(px - POST_X[i], py - POST_Y[i], dx, dy, radius);
+                    if (toi < earliest) {
+                        earliest = toi;
+                        hitType = HIT_POST;
+                        hitIndex = i;
+                    }
+                }
+            }
+
+            for (int i = 0; i < mallets.length; i++) {
+                if ((malletsHit & (1 << i)) != 0) continue;
+                Mallet m = mallets[i];
+                float mEndX = m.getX();
+                float mEndY = m.getY();
+                float mx = lerp(m.getPrevX(), mEndX, t);
+                float my = lerp(m.getPrevY(), mEndY, t);
+                float toi = sweepCircles(px - mx, py - my,
+                        dx - (mEndX - mx), dy - (mEndY - my),
+                        radius + m.getRadius());
+                if (toi < earliest) {
+                    earliest = toi;
+                    hitType = HIT_MALLET;
+                    hitIndex = i;
+                }
+            }
+
+            if (hitType == HIT_NONE) {
+                px += dx;
+                py += dy;
+                break;
+            }
+
+            // Advance to the moment of impact and resolve it
+            px += dx * earliest;
+            py += dy * earliest;
+            t += remaining * earliest;
+
+            if (hitType == HIT_WALL) {
+                reflect(puck, WALL_NX[hitIndex], WALL_NY[hitIndex]);
+            } else if (hitType == HIT_POST) {
+                float nx = px - POST_X[hitIndex];
+                float ny = py - POST_Y[hitIndex];
+                float length = (float)Math.sqrt(nx * nx + ny * ny);
+                if (length > 0) {
+                    reflect(puck, nx / length, ny / length);
+                }
+            } else {
+                Mallet m = mallets[hitIndex];
+                malletsHit |= 1 << hitIndex;
+
+                float nx = px - lerp(m.getPrevX(), m.getX(), t);
+                float ny = py - lerp(m.getPrevY(), m.getY(), t);
+                float length = (float)Math.sqrt(nx * nx + ny * ny);
+                if (length > 0) {
+                    // Use the mallet's actual travel this tick so the impulse matches the sweep
+                    float malletVx = (m.getX() - m.getPrevX()) / step;
+                    float malletVy = (m.getY() - m.getPrevY()) / step;
+                    if (applyMalletImpulse(puck, nx / length, ny / length, malletVx, malletVy)
+                            && listener != null) {
+                        listener.onMalletHit(puck, m);
+                    }
+                }
+            }
         }
+
+        puck.setX(px);
+        puck.setY(py);
+    }
+
+    // Time of impact in [0, 1] of a circle at relative position (sx, sy) moving by
+    // (wx, wy) against a fixed circle, radius being the sum of both radii
+    public static float sweepCircles(float sx, float sy, float wx, float wy, float radius) {
+        float b = sx * wx + sy * wy;
+        float c = sx * sx + sy * sy - radius * radius;
+
+        if (c < 0) {
+            // Already overlapping - only an impact if still closing in
+            return b < 0 ? 0 : NO_HIT;
+        }
+        if (b >= 0) return NO_HIT;
+
+        float a = wx * wx + wy * wy;
+        float discriminant = b * b - a * c;
+        if (discriminant < 0) return NO_HIT;
+
+        float toi = (-b - (float)Math.sqrt(discriminant)) / a;
+        return toi <= 1 ? toi : NO_HIT;
+    }
+
+    // Time of impact in [0, 1] of a moving circle against segment A -> B whose
+    // inward normal is (nx, ny). The segment ends are handled as separate points.
+    public static float sweepCircleSegment(float px, float py, float dx, float dy, float radius,
+                                           float ax, float ay, float bx, float by,
+                                           float nx, float ny) {
+        float approach = dx * nx + dy * ny;
+        if (approach >= 0) return NO_HIT;
+
+        float gap = (px - ax) * nx + (py - ay) * ny - radius;
+        if (gap < -radius) return NO_HIT; // Centre already behind the wall line
+
+        float toi = gap > 0 ? gap / -approach : 0;
+        if (toi > 1) return NO_HIT;
+
+        // The contact point must lie on the segment itself
+        float ux = bx - ax;
+        float uy = by - ay;
+        float along = (px + dx * toi - ax) * ux + (py + dy * toi - ay) * uy;
+        if (along < 0 || along > ux * ux + uy * uy) return NO_HIT;
+
+        return toi;
+    }
+
+    private static void reflect(Puck puck, float nx, float ny) {
+        float vx = puck.getVelocityX();
+        float vy = puck.getVelocityY();
+        float speedAlongNormal = vx * nx + vy * ny;
+        if (speedAlongNormal >= 0) return;
+
+        // Mirror the normal component and keep WALL_RESTITUTION of it
+        float change = (1 + Constants.WALL_RESTITUTION) * speedAlongNormal;
+        puck.setVelocityX(vx - change * nx);
+        puck.setVelocityY(vy - change * ny);
+    }
+
+    // True when the box around the swept circle reaches the table border
+    private static boolean nearBorder(float px, float py, float dx, float dy, float radius) {
+        float minX = dx < 0 ? px + dx : px;
+        float maxX = dx < 0 ? px : px + dx;
+        float minY = dy < 0 ? py + dy : py;
+        float maxY = dy < 0 ? py : py + dy;
+        return minX - radius <= Constants.TABLE_X || maxX + radius >= TABLE_RIGHT
+                || minY - radius <= Constants.TABLE_Y || maxY + radius >= TABLE_BOTTOM;
+    }
+
+    private static float lerp(float from, float to, float t) {
+        return from + (to - from) * t;
+    }
+
+    // Resolves every overlapping pair of pucks, looking only at pucks in the same
+    // or a neighbouring grid cell. Each pair is visited once, in a fixed order.
+    public static void handlePuckCollisions(Puck[] pucks, SpatialHash grid) {
+        int cols = grid.getCols();
+        int cells = cols * grid.getRows();
+
+        for (int cell = 0; cell < cells; cell++) {
+            int begin = grid.cellBegin(cell);
+            int end = grid.cellEnd(cell);
+            if (begin == end) continue;
+
+            int col = cell % cols;
+            int row = cell / cols;
+            for (int slot = begin; slot < end; slot++) {
+                Puck puck = pucks[grid.item(slot)];
+
+                for (int other = slot + 1; other < end; other++) {
+                    handlePuckCollision(puck, pucks[grid.item(other)]);
+                }
+
+                // Forward neighbours only (right and the row below) so no pair is seen twice
+                collideWithCell(puck, pucks, grid, col + 1, row);
+                collideWithCell(puck, pucks, grid, col - 1, row + 1);
+                collideWithCell(puck, pucks, grid, col, row + 1);
+                collideWithCell(puck, pucks, grid, col + 1, row + 1);
+            }
+        }
+    }
+
+    private static void collideWithCell(Puck puck, Puck[] pucks, SpatialHash grid, int col, int row) {
+        if (col < 0 || col >= grid.getCols() || row >= grid.getRows()) return;
+
+        int cell = row * grid.getCols() + col;
+        for (int slot = grid.cellBegin(cell), end = grid.cellEnd(cell); slot < end; slot++) {
+            handlePuckCollision(puck, pucks[grid.item(slot)]);
+        }
+    }
+
+    public static void handlePuckCollision(Puck a, Puck b) {
+        float dx = b.getX() - a.getX();
+        float dy = b.getY() - a.getY();
+        float distanceSq = dx * dx + dy * dy;
+        float minDistance = a.getRadius() + b.getRadius();
+
+        if (distanceSq >= minDistance * minDistance || distanceSq == 0) return;
+
+        float distance = (float)Math.sqrt(distanceSq);
+        float nx = dx / distance;
+        float ny = dy / distance;
+
+        // Equal masses: exchange the normal components of velocity
+        float closing = (a.getVelocityX() - b.getVelocityX()) * nx + (a.getVelocityY() - b.getVelocityY()) * ny;
+        if (closing > 0) {
+            float impulse = closing * (1 + PUCK_RESTITUTION) / 2;
+            a.setVelocityX(a.getVelocityX() - impulse * nx);
+            a.setVelocityY(a.getVelocityY() - impulse * ny);
+            b.setVelocityX(b.getVelocityX() + impulse * nx);
+            b.setVelocityY(b.getVelocityY() + impulse * ny);
+        }
+
+        // Split the overlap between both pucks
+        float push = (minDistance - distance) / 2;
+        a.setX(a.getX() - nx * push);
+        a.setY(a.getY() - ny * push);
+        b.setX(b.getX() + nx * push);
+        b.setY(b.getY() + ny * push);
     }
 
     public static void handleWallCollision(Puck puck) {
@@ -52,24 +350,23 @@ public class PhysicsEngine {
 
         if (x - radius < Constants.TABLE_X) {
             puck.setX(Constants.TABLE_X + radius);
-            puck.setVelocityX(Math.abs(puck.getVelocityX()) * 0.9f);
+            puck.setVelocityX(Math.abs(puck.getVelocityX()) * Constants.WALL_RESTITUTION);
         }
-        else if (x + radius > Constants.TABLE_X + Constants.TABLE_WIDTH) {
-            puck.setX(Constants.TABLE_X + Constants.TABLE_WIDTH - radius);
-            puck.setVelocityX(-Math.abs(puck.getVelocityX()) * 0.9f);
+        else if (x + radius > TABLE_RIGHT) {
+            puck.setX(TABLE_RIGHT - radius);
+            puck.setVelocityX(-Math.abs(puck.getVelocityX()) * Constants.WALL_RESTITUTION);
         }
 
+        // Inside the goal mouth the puck is allowed through
+        if (x >= GOAL_LEFT && x <= GOAL_RIGHT) return;
+
         if (y - radius < Constants.TABLE_Y) {
-            if (Math.abs(x - (Constants.TABLE_X + Constants.TABLE_WIDTH/2)) > Constants.GOAL_WIDTH/2) {
-                puck.setY(Constants.TABLE_Y + radius);
-                puck.setVelocityY(Math.abs(puck.getVelocityY()) * 0.9f);
-            }
+            puck.setY(Constants.TABLE_Y + radius);
+            puck.setVelocityY(Math.abs(puck.getVelocityY()) * Constants.WALL_RESTITUTION);
         }
-        else if (y + radius > Constants.TABLE_Y + Constants.TABLE_HEIGHT) {
-            if (Math.abs(x - (Constants.TABLE_X + Constants.TABLE_WIDTH/2)) > Constants.GOAL_WIDTH/2) {
-                puck.setY(Constants.TABLE_Y + Constants.TABLE_HEIGHT - radius);
-                puck.setVelocityY(-Math.abs(puck.getVelocityY()) * 0.9f);
-            }
+        else if (y + radius > TABLE_BOTTOM) {
+            puck.setY(TABLE_BOTTOM - radius);
+            puck.setVelocityY(-Math.abs(puck.getVelocityY()) * Constants.WALL_RESTITUTION);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,82 @@
+package airhockey.physics;
+
+import airhockey.core.Puck;
+
+import java.util.Arrays;
+
+// Uniform grid over the table used as the broad phase for many pucks.
+// build() bucket-sorts the pucks by cell (counting sort, no allocation), so a
+// puck only has to be tested against the pucks in its own and neighbouring cells.
+public class SpatialHash {
+    private final float originX, originY;
+    private final float cellSize;
+    private final int cols, rows;
+
+    private final int[] cellStart; // First slot of each cell in items, plus an end marker
+    private final int[] cellCount;
+    private final int[] cellOf;    // Cell of each puck
+    private final int[] items;     // Puck indices ordered by cell
+    private int count;
+
+    public SpatialHash(float originX, float originY, float width, float height, float cellSize, int capacity) {
+        this.originX = originX;
+        this.originY = originY;
+        this.cellSize = cellSize;
+        this.cols = Math.max(1, (int)Math.ceil(width / cellSize));
+        this.rows = Math.max(1, (int)Math.ceil(height / cellSize));
+
+        cellStart = new int[cols * rows + 1];
+        cellCount = new int[cols * rows];
+        cellOf = new int[capacity];
+        items = new int[capacity];
+    }
+
+    public void build(Puck[] pucks, int count) {
+        this.count = count;
+        Arrays.fill(cellCount, 0);
+
+        for (int i = 0; i < count; i++) {
+            int cell = cellIndex(pucks[i].getX(), pucks[i].getY());
+            cellOf[i] = cell;
+            cellCount[cell]++;
+        }
+
+        int start = 0;
+        for (int c = 0; c < cellCount.length; c++) {
+            cellStart[c] = start;
+            start += cellCount[c];
+        }
+        cellStart[cellCount.length] = start;
+
+        // Reuse cellCount as the fill cursor of each cell
+        for (int c = 0; c < cellCount.length; c++) {
+            cellCount[c] = cellStart[c];
+        }
+        for (int i = 0; i < count; i++) {
+            items[cellCount[cellOf[i]]++] = i;
+        }
+    }
+
+    // Positions outside the grid (e.g. inside a goal mouth) fall into the edge cells
+    public int cellIndex(float x, float y) {
+        int col = (int)((x - originX) / cellSize);
+        int row = (int)((y - originY) / cellSize);
+        col = Math.max(0, Math.min(cols - 1, col));
+        row = Math.max(0, Math.min(rows - 1, row));
+        return row * cols + col;
+    }
+
+    public boolean isEdgeCell(int cell) {
+        int col = cell % cols;
+        int row = cell / cols;
+        return col == 0 || row == 0 || col == cols - 1 || row == rows - 1;
+    }
+
+    public int getCols() { return cols; }
+    public int getRows() { return rows; }
+    public int getCount() { return count; }
+    public int cellOf(int puck) { return cellOf[puck]; }
+    public int cellBegin(int cell) { return cellStart[cell]; }
+    public int cellEnd(int cell) { return cellStart[cell + 1]; }
+    public int item(int slot) { return items[slot]; }
+}
@@ -0,0 +1,54 @@
+package airhockey.sim;
+
+import airhockey.ai.AI;
+
+// Plays AI-vs-AI matches headlessly and reports throughput and results.
+// Match i is seeded with seed + i, so the printed checksum must be identical
+// for the same arguments on every run and every JVM.
+// Usage: java -Djava.awt.headless=true airhockey.sim.BatchRunner [matches] [difficulty] [tickRate] [seed]
+public class BatchRunner {
+    // A match still undecided after this much game time is counted as a draw
+    private static final int MAX_MATCH_SECONDS = 600;
+
+    public static void main(String[] args) {
+        int matches = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int difficulty = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        int tickRate = args.length > 2 ? Integer.parseInt(args[2]) : 60;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 1;
+
+        float dt = 1.0f / tickRate;
+        long maxTicks = (long) MAX_MATCH_SECONDS * tickRate;
+        MatchInput input = new MatchInput();
+
+        int player1Wins = 0;
+        int player2Wins = 0;
+        int draws = 0;
+        long totalTicks = 0;
+        long checksum = 0;
+
+        long start = System.nanoTime();
+        for (int i = 0; i < matches; i++) {
+            Match match = new Match(new AI(difficulty, true), new AI(difficulty, false), 1, seed + i);
+            while (!match.isGameOver() && match.getTicks() < maxTicks) {
+                match.step(input, dt);
+            }
+            totalTicks += match.getTicks();
+            checksum = checksum * 31 + match.checksum();
+
+            if (!match.isGameOver()) {
+                draws++;
+            } else if (match.getPlayer1Score() > match.getPlayer2Score()) {
+                player1Wins++;
+            } else {
+                player2Wins++;
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d matches in %.2f s (%.0f matches/s, %.2f M ticks/s)%n",
+                matches, seconds, matches / seconds, totalTicks / seconds / 1e6);
+        System.out.printf("Player 1 wins: %d | Player 2 wins: %d | Undecided: %d%n",
+                player1Wins, player2Wins, draws);
+        System.out.printf("State checksum: %016x%n", checksum);
+    }
+}
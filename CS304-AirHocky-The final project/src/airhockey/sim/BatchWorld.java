@@ -0,0 +1,308 @@
+package airhockey.sim;
+
+import airhockey.physics.PhysicsEngine;
+import airhockey.utils.Constants;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Many independent matches stored as flat primitive arrays (one slot per match)
+// and stepped together phase by phase. Each phase is a plain loop over a slot
+// range so the JIT can unroll and vectorise it, and ranges can be split across
+// cores with ForkJoin. Both mallets simply chase the puck - this is meant for
+// throughput and tuning runs, not for reproducing the Swing game exactly.
+public class BatchWorld {
+    private static final int SPLIT_THRESHOLD = 2048;
+
+    private static final float PUCK_RADIUS = Constants.PUCK_RADIUS;
+    private static final float MALLET_RADIUS = Constants.MALLET_RADIUS;
+    private static final float LEFT = Constants.TABLE_X;
+    private static final float RIGHT = Constants.TABLE_X + Constants.TABLE_WIDTH;
+    private static final float TOP = Constants.TABLE_Y;
+    private static final float BOTTOM = Constants.TABLE_Y + Constants.TABLE_HEIGHT;
+    private static final float MIDDLE = Constants.TABLE_Y + Constants.TABLE_HEIGHT / 2;
+    private static final float CENTER_X = Constants.TABLE_X + Constants.TABLE_WIDTH / 2;
+    private static final float GOAL_HALF = Constants.GOAL_WIDTH / 2;
+
+    private final int size;
+
+    // Puck state per match
+    private final float[] puckX, puckY, puckVX, puckVY;
+
+    // Mallet state per match - index 0 is player 1 (bottom), 1 is player 2 (top)
+    private final float[][] malletX = new float[2][];
+    private final float[][] malletY = new float[2][];
+    private final float[][] malletPrevX = new float[2][];
+    private final float[][] malletPrevY = new float[2][];
+    private final float[][] malletVX = new float[2][];
+    private final float[][] malletVY = new float[2][];
+    private final float[][] targetX = new float[2][];
+    private final float[][] targetY = new float[2][];
+
+    private final float[] serveVX; // Fixed sideways serve per slot so rallies differ
+    private final int[] player1Score, player2Score;
+    private final int[] matchesFinished;
+
+    public BatchWorld(int size, long seed) {
+        this.size = size;
+        puckX = new float[size];
+        puckY = new float[size];
+        puckVX = new float[size];
+        puckVY = new float[size];
+        for (int m = 0; m < 2; m++) {
+            malletX[m] = new float[size];
+            malletY[m] = new float[size];
+            malletPrevX[m] = new float[size];
+            malletPrevY[m] = new float[size];
+            malletVX[m] = new float[size];
+            malletVY[m] = new float[size];
+            targetX[m] = new float[size];
+            targetY[m] = new float[size];
+        }
+        serveVX = new float[size];
+        player1Score = new int[size];
+        player2Score = new int[size];
+        matchesFinished = new int[size];
+
+        Random random = new Random(seed);
+        for (int i = 0; i < size; i++) {
+            serveVX[i] = random.nextFloat() * 6 - 3;
+            faceOff(i, random.nextBoolean());
+        }
+    }
+
+    public void step(float dt, boolean parallel) {
+        float step = dt * Constants.BASE_TICK_RATE;
+        if (parallel && size > SPLIT_THRESHOLD) {
+            ForkJoinPool.commonPool().invoke(new StepTask(0, size, step));
+        } else {
+            stepRange(0, size, step);
+        }
+    }
+
+    private void stepRange(int from, int to, float step) {
+        chasePuck(from, to);
+        moveMallets(0, from, to, step);
+        moveMallets(1, from, to, step);
+        movePucks(from, to, step);
+        bounceAndScore(from, to);
+        applyFriction(from, to, step);
+    }
+
+    // Each mallet heads for the puck, clamped to its own half
+    private void chasePuck(int from, int to) {
+        float[] tx0 = targetX[0], ty0 = targetY[0], tx1 = targetX[1], ty1 = targetY[1];
+        for (int i = from; i < to; i++) {
+            float x = Math.max(LEFT + MALLET_RADIUS, Math.min(RIGHT - MALLET_RADIUS, puckX[i]));
+            tx0[i] = x;
+            tx1[i] = x;
+            ty0[i] = Math.max(MIDDLE + MALLET_RADIUS, Math.min(BOTTOM - MALLET_RADIUS, puckY[i] + PUCK_RADIUS));
+            ty1[i] = Math.max(TOP + MALLET_RADIUS, Math.min(MIDDLE - MALLET_RADIUS, puckY[i] - PUCK_RADIUS));
+        }
+    }
+
+    // Same steering as Mallet.update with the keyboard/AI speed cap
+    private void moveMallets(int m, int from, int to, float step) {
+        float[] x = malletX[m], y = malletY[m], px = malletPrevX[m], py = malletPrevY[m];
+        float[] vx = malletVX[m], vy = malletVY[m], tx = targetX[m], ty = targetY[m];
+        float maxSpeed = m == 0 ? Constants.KEYBOARD_SPEED : Constants.AI_SPEED;
+        float damping = (float)StrictMath.pow(Constants.MALLET_DAMPING, step);
+        float approach = 1 - (float)StrictMath.pow(1 - Constants.MALLET_APPROACH, step);
+        float minY = m == 0 ? MIDDLE + MALLET_RADIUS : TOP + MALLET_RADIUS;
+        float maxY = m == 0 ? BOTTOM - MALLET_RADIUS : MIDDLE - MALLET_RADIUS;
+
+        for (int i = from; i < to; i++) {
+            px[i] = x[i];
+            py[i] = y[i];
+
+            float dx = tx[i] - x[i];
+            float dy = ty[i] - y[i];
+            float distance = (float)Math.sqrt(dx * dx + dy * dy);
+            if (distance > 1) {
+                float speed = Math.min(maxSpeed, approach * distance / step) / distance;
+                vx[i] = dx * speed;
+                vy[i] = dy * speed;
+            } else {
+                // Settle to exactly zero rather than decaying into denormals
+                vx[i] = Math.abs(vx[i]) < 0.01f ? 0 : vx[i] * damping;
+                vy[i] = Math.abs(vy[i]) < 0.01f ? 0 : vy[i] * damping;
+            }
+
+            x[i] = Math.max(LEFT + MALLET_RADIUS, Math.min(RIGHT - MALLET_RADIUS, x[i] + vx[i] * step));
+            y[i] = Math.max(minY, Math.min(maxY, y[i] + vy[i] * step));
+        }
+    }
+
+    // Swept puck motion with at most one mallet impact per tick
+    private void movePucks(int from, int to, float step) {
+        float radius = PUCK_RADIUS + MALLET_RADIUS;
+        for (int i = from; i < to; i++) {
+            float dx = puckVX[i] * step;
+            float dy = puckVY[i] * step;
+
+            int hit = -1;
+            float toi = PhysicsEngine.NO_HIT;
+            for (int m = 0; m < 2; m++) {
+                float mx = malletPrevX[m][i];
+                float my = malletPrevY[m][i];
+                float t = PhysicsEngine.sweepCircles(puckX[i] - mx, puckY[i] - my,
+                        dx - (malletX[m][i] - mx), dy - (malletY[m][i] - my), radius);
+                if (t < toi) {
+                    toi = t;
+                    hit = m;
+                }
+            }
+
+            if (hit < 0) {
+                puckX[i] += dx;
+                puckY[i] += dy;
+                continue;
+            }
+
+            puckX[i] += dx * toi;
+            puckY[i] += dy * toi;
+
+            float mx = malletPrevX[hit][i] + (malletX[hit][i] - malletPrevX[hit][i]) * toi;
+            float my = malletPrevY[hit][i] + (malletY[hit][i] - malletPrevY[hit][i]) * toi;
+            float nx = puckX[i] - mx;
+            float ny = puckY[i] - my;
+            float lengthSq = nx * nx + ny * ny;
+            if (lengthSq > 0) {
+                float inverse = 1 / (float)Math.sqrt(lengthSq);
+                nx *= inverse;
+                ny *= inverse;
+
+                float mvx = (malletX[hit][i] - malletPrevX[hit][i]) / step;
+                float mvy = (malletY[hit][i] - malletPrevY[hit][i]) / step;
+                float along = (puckVX[i] - mvx) * nx + (puckVY[i] - mvy) * ny;
+                if (along < 0) {
+                    puckVX[i] += -along * Constants.MALLET_BOUNCE * nx + mvx * Constants.MALLET_CARRY;
+                    puckVY[i] += -along * Constants.MALLET_BOUNCE * ny + mvy * Constants.MALLET_CARRY;
+                }
+            }
+
+            float rest = (1 - toi) * step;
+            puckX[i] += puckVX[i] * rest;
+            puckY[i] += puckVY[i] * rest;
+        }
+    }
+
+    // Wall bounces outside the goal mouths; anything past a goal line scores
+    private void bounceAndScore(int from, int to) {
+        for (int i = from; i < to; i++) {
+            float x = puckX[i];
+            float y = puckY[i];
+
+            if (x - PUCK_RADIUS < LEFT) {
+                puckX[i] = LEFT + PUCK_RADIUS;
+                puckVX[i] = Math.abs(puckVX[i]) * Constants.WALL_RESTITUTION;
+            } else if (x + PUCK_RADIUS > RIGHT) {
+                puckX[i] = RIGHT - PUCK_RADIUS;
+                puckVX[i] = -Math.abs(puckVX[i]) * Constants.WALL_RESTITUTION;
+            }
+
+            boolean inMouth = Math.abs(x - CENTER_X) < GOAL_HALF;
+            if (y - PUCK_RADIUS < TOP) {
+                if (inMouth) {
+                    score(i, true);
+                } else {
+                    puckY[i] = TOP + PUCK_RADIUS;
+                    puckVY[i] = Math.abs(puckVY[i]) * Constants.WALL_RESTITUTION;
+                }
+            } else if (y + PUCK_RADIUS > BOTTOM) {
+                if (inMouth) {
+                    score(i, false);
+                } else {
+                    puckY[i] = BOTTOM - PUCK_RADIUS;
+                    puckVY[i] = -Math.abs(puckVY[i]) * Constants.WALL_RESTITUTION;
+                }
+            }
+        }
+    }
+
+    // Friction, speed cap and stop threshold as in Puck.update, written as selects
+    private void applyFriction(int from, int to, float step) {
+        float friction = (float)StrictMath.pow(Constants.FRICTION, step);
+        float maxSpeedSq = Constants.MAX_SPEED * Constants.MAX_SPEED;
+        for (int i = from; i < to; i++) {
+            float vx = puckVX[i] * friction;
+            float vy = puckVY[i] * friction;
+            float speedSq = vx * vx + vy * vy;
+            float scale = speedSq > maxSpeedSq ? Constants.MAX_SPEED / (float)Math.sqrt(speedSq) : 1f;
+            vx *= scale;
+            vy *= scale;
+            puckVX[i] = Math.abs(vx) < 0.1f ? 0 : vx;
+            puckVY[i] = Math.abs(vy) < 0.1f ? 0 : vy;
+        }
+    }
+
+    private void score(int i, boolean player1Scored) {
+        if (player1Scored) {
+            player1Score[i]++;
+        } else {
+            player2Score[i]++;
+        }
+
+        if (player1Score[i] >= Constants.WIN_SCORE || player2Score[i] >= Constants.WIN_SCORE) {
+            matchesFinished[i]++;
+            player1Score[i] = 0;
+            player2Score[i] = 0;
+        }
+
+        // Serve towards the side that conceded
+        faceOff(i, !player1Scored);
+    }
+
+    private void faceOff(int i, boolean towardsPlayer1) {
+        puckX[i] = Constants.WINDOW_WIDTH / 2;
+        puckY[i] = Constants.WINDOW_HEIGHT / 2;
+        puckVX[i] = serveVX[i];
+        puckVY[i] = towardsPlayer1 ? 2 : -2;
+
+        for (int m = 0; m < 2; m++) {
+            float y = m == 0 ? BOTTOM - 100 : TOP + 100;
+            malletX[m][i] = CENTER_X;
+            malletY[m][i] = y;
+            malletPrevX[m][i] = CENTER_X;
+            malletPrevY[m][i] = y;
+            malletVX[m][i] = 0;
+            malletVY[m][i] = 0;
+        }
+    }
+
+    private class StepTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from, to;
+        private final float step;
+
+        StepTask(int from, int to, float step) {
+            this.from = from;
+            this.to = to;
+            this.step = step;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                stepRange(from, to, step);
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new StepTask(from, middle, step), new StepTask(middle, to, step));
+            }
+        }
+    }
+
+    public int size() { return size; }
+    public float getPuckX(int i) { return puckX[i]; }
+    public float getPuckY(int i) { return puckY[i]; }
+    public int getPlayer1Score(int i) { return player1Score[i]; }
+    public int getPlayer2Score(int i) { return player2Score[i]; }
+
+    public long getMatchesFinished() {
+        long total = 0;
+        for (int i = 0; i < size; i++) total += matchesFinished[i];
+        return total;
+    }
+}
@@ -0,0 +1,474 @@
+package airhockey.sim;
+
+import airhockey.ai.AI;
+import airhockey.core.Mallet;
+import airhockey.core.Puck;
+import airhockey.physics.PhysicsEngine;
+import airhockey.physics.SpatialHash;
+import airhockey.utils.Constants;
+import airhockey.utils.RandomStream;
+import airhockey.utils.StateBuffer;
+
+// Game rules and physics for one match with no display or sound attached.
+// Everything advances through step(), so it can run as fast as the CPU allows.
+// A match built with a seed is deterministic: the same seed and the same
+// sequence of inputs give bit-identical states (see checksum()) on any JVM.
+@SuppressWarnings("strictfp")
+public strictfp class Match {
+    private static final String[] POWER_UPS = {"SPEED_BOOST", "PUCK_SLOW"};
+    private static final long POWER_UP_DURATION = 5000;
+
+    // Scheduled event kinds
+    private static final int EVENT_GOAL_RESET = 0;
+    private static final int EVENT_POWER_UP_END = 1;
+
+    private final Puck[] pucks;
+    private final Puck puck; // The first puck; the only one outside chaos mode
+    private final SpatialHash grid;
+    private final Mallet player1;
+    private final Mallet player2;
+    private final Mallet[] mallets;
+
+    // Null when the player is human
+    private final AI player1Ai;
+    private final AI player2Ai;
+
+    private final long seed;
+    private final RandomStream random;
+
+    private MatchListener listener;
+    private final PhysicsEngine.ImpactListener impactListener = this::onMalletHit;
+
+    private long timeMillis = 0;
+    private float timeRemainder = 0;
+    private long ticks = 0;
+    private float stepSeconds = 1.0f / Constants.DEFAULT_TICK_RATE;
+
+    // Delayed events run on match ticks, so they pause with the match
+    private final TickScheduler scheduler = new TickScheduler(8, this::onScheduledEvent);
+    private long goalResetEvent = TickScheduler.NO_EVENT;
+    private long powerUpEndEvent = TickScheduler.NO_EVENT;
+
+    private final int winScore;
+    private int player1Score = 0;
+    private int player2Score = 0;
+    private boolean gameOver = false;
+    private boolean resetting = false;
+
+    // Power-up system
+    private boolean powerUpActive = false;
+    private String activePowerUp = "";
+    private int powerUpRadius = 40; // Size when power-up is active
+
+    public Match(AI player1Ai, AI player2Ai) {
+        this(player1Ai, player2Ai, 1);
+    }
+
+    public Match(AI player1Ai, AI player2Ai, int puckCount) {
+        this(player1Ai, player2Ai, puckCount, System.nanoTime());
+    }
+
+    public Match(AI player1Ai, AI player2Ai, int puckCount, long seed) {
+        this.player1Ai = player1Ai;
+        this.player2Ai = player2Ai;
+
+        // Power-ups and chaos respawns draw from the match stream, each AI from its own
+        this.seed = seed;
+        this.random = new RandomStream(seed);
+        if (player1Ai != null) player1Ai.setRandom(random.split());
+        if (player2Ai != null) player2Ai.setRandom(random.split());
+
+        pucks = new Puck[puckCount];
+        for (int i = 0; i < puckCount; i++) {
+            pucks[i] = new Puck(Constants.WINDOW_WIDTH/2, Constants.WINDOW_HEIGHT/2);
+        }
+        puck = pucks[0];
+        winScore = puckCount > 1 ? Constants.CHAOS_WIN_SCORE : Constants.WIN_SCORE;
+
+        // Cells one puck wide: touching pucks are always in the same or adjacent cells
+        grid = new SpatialHash(Constants.TABLE_X, Constants.TABLE_Y,
+                Constants.TABLE_WIDTH, Constants.TABLE_HEIGHT,
+                Constants.PUCK_RADIUS * 2, puckCount);
+
+        player1 = new Mallet(
+                Constants.WINDOW_WIDTH/2,
+                Constants.TABLE_Y + Constants.TABLE_HEIGHT - 100,
+                true
+        );
+        player2 = new Mallet(
+                Constants.WINDOW_WIDTH/2,
+                Constants.TABLE_Y + 100,
+                false
+        );
+        mallets = new Mallet[]{player1, player2};
+
+        reset();
+    }
+
+    public void setListener(MatchListener listener) {
+        this.listener = listener;
+    }
+
+    // The order below is part of the deterministic contract: scheduled events,
+    // AIs, mallets, each puck in array order, puck-puck contacts in grid order, goals
+    public void step(MatchInput input, float dt) {
+        if (gameOver) return;
+
+        advanceClock(dt);
+        scheduler.advance();
+
+        // Held after a goal until EVENT_GOAL_RESET fires
+        if (resetting) return;
+
+        applyInput(input, dt);
+
+        if (player1Ai != null) {
+            player1Ai.update(player1, aiTarget(true), timeMillis, dt);
+        }
+        if (player2Ai != null) {
+            player2Ai.update(player2, aiTarget(false), timeMillis, dt);
+        }
+
+        player1.update(dt);
+        player2.update(dt);
+
+        for (Puck p : pucks) {
+            checkCollisions(p, dt);
+            p.update(dt);
+        }
+        if (pucks.length > 1) {
+            grid.build(pucks, pucks.length);
+            PhysicsEngine.handlePuckCollisions(pucks, grid);
+        }
+
+        checkGoals();
+
+        if (player1Score >= winScore || player2Score >= winScore) {
+            gameOver = true;
+        }
+    }
+
+    private void advanceClock(float dt) {
+        stepSeconds = dt;
+        ticks++;
+        timeRemainder += dt * 1000f;
+        long whole = (long) timeRemainder;
+        timeMillis += whole;
+        timeRemainder -= whole;
+    }
+
+    private void applyInput(MatchInput input, float dt) {
+        // Keyboard speed is per base tick
+        float speed = Constants.KEYBOARD_SPEED * dt * Constants.BASE_TICK_RATE;
+
+        if (player1Ai == null) {
+            if (player1.isMouseControl() && input.p1MouseActive) {
+                player1.moveTo(input.p1MouseX, input.p1MouseY);
+            } else if (input.p1DirX != 0 || input.p1DirY != 0) {
+                player1.moveKeyboard(input.p1DirX * speed, input.p1DirY * speed);
+            }
+        }
+
+        if (player2Ai == null && (input.p2DirX != 0 || input.p2DirY != 0)) {
+            player2.moveKeyboard(input.p2DirX * speed, input.p2DirY * speed);
+        }
+    }
+
+    // The puck an AI should play: the only one, or in chaos mode the nearest
+    // puck in its own half (falling back to the nearest puck overall)
+    private Puck aiTarget(boolean defendsBottom) {
+        if (pucks.length == 1) return puck;
+
+        Mallet mallet = defendsBottom ? player1 : player2;
+        float middle = Constants.TABLE_Y + Constants.TABLE_HEIGHT / 2;
+        Puck best = puck;
+        float bestDistance = Float.MAX_VALUE;
+        boolean bestInHalf = false;
+
+        for (Puck p : pucks) {
+            boolean inHalf = defendsBottom ? p.getY() > middle : p.getY() < middle;
+            float dx = p.getX() - mallet.getX();
+            float dy = p.getY() - mallet.getY();
+            float distance = dx * dx + dy * dy;
+            if ((inHalf && !bestInHalf) || (inHalf == bestInHalf && distance < bestDistance)) {
+                best = p;
+                bestDistance = distance;
+                bestInHalf = inHalf;
+            }
+        }
+        return best;
+    }
+
+    private void checkCollisions(Puck puck, float dt) {
+        // Sweep the puck along its path, hitting mallets, walls and goal posts in order
+        PhysicsEngine.movePuck(puck, mallets, dt, impactListener);
+
+        // A mallet can still pin the puck (e.g. against a wall) - push it back out
+        for (Mallet mallet : mallets) {
+            if (PhysicsEngine.checkCollision(puck, mallet)) {
+                PhysicsEngine.separate(puck, mallet);
+            }
+        }
+    }
+
+    private void onMalletHit(Puck puck, Mallet mallet) {
+        if (listener != null) listener.onMalletHit(mallet);
+
+        // Apply power-up effects
+        if (powerUpActive && activePowerUp.equals("SPEED_BOOST")) {
+            puck.setVelocityX(puck.getVelocityX() * Constants.SPEED_BOOST);
+            puck.setVelocityY(puck.getVelocityY() * Constants.SPEED_BOOST);
+            if (listener != null) listener.onPowerUp(activePowerUp);
+        }
+    }
+
+    private void checkGoals() {
+        if (pucks.length == 1) {
+            PhysicsEngine.handleWallCollision(puck);
+            if (puck.isInGoal(true)) { // Top goal - Player 1 scores
+                scoreGoal(puck, true);
+            } else if (puck.isInGoal(false)) { // Bottom goal - Player 2/AI scores
+                scoreGoal(puck, false);
+            }
+            return;
+        }
+
+        // Only pucks in the edge cells can touch a wall or reach a goal, so the
+        // interior of the table is skipped entirely (the grid is rebuilt after
+        // the puck-puck pass so it reflects final positions)
+        grid.build(pucks, pucks.length);
+        int cells = grid.getCols() * grid.getRows();
+        for (int cell = 0; cell < cells; cell++) {
+            if (!grid.isEdgeCell(cell)) continue;
+
+            for (int slot = grid.cellBegin(cell); slot < grid.cellEnd(cell); slot++) {
+                Puck p = pucks[grid.item(slot)];
+                PhysicsEngine.handleWallCollision(p);
+                if (p.isInGoal(true)) {
+                    scoreGoal(p, true);
+                } else if (p.isInGoal(false)) {
+                    scoreGoal(p, false);
+                }
+            }
+        }
+    }
+
+    private void scoreGoal(Puck scoringPuck, boolean player1Scored) {
+        if (player1Scored) {
+            player1Score++;
+        } else {
+            player2Score++;
+        }
+        if (listener != null) listener.onGoal(player1Scored);
+
+        if (random.nextDouble() < 0.3) {
+            activateRandomPowerUp();
+        }
+
+        if (pucks.length > 1) {
+            // Chaos mode keeps playing: the puck goes back in near the centre spot
+            scoringPuck.reset();
+            scoringPuck.setX(scoringPuck.getX() + (float)(random.nextDouble() - 0.5) * 2 * Constants.PUCK_RADIUS);
+            return;
+        }
+
+        // Hold the puck for GOAL_RESET_DELAY of game time before the face-off
+        resetting = true;
+        goalResetEvent = scheduler.schedule(EVENT_GOAL_RESET, ticksFor(Constants.GOAL_RESET_DELAY));
+    }
+
+    private void activateRandomPowerUp() {
+        activePowerUp = POWER_UPS[random.nextInt(POWER_UPS.length)];
+        powerUpActive = true;
+
+        // A new power-up replaces the running one and restarts the timer
+        scheduler.cancel(powerUpEndEvent);
+        powerUpEndEvent = scheduler.schedule(EVENT_POWER_UP_END, ticksFor(POWER_UP_DURATION));
+
+        switch(activePowerUp) {
+            case "SPEED_BOOST":
+                break;
+            case "PUCK_SLOW":
+                for (Puck p : pucks) {
+                    p.setVelocityX(p.getVelocityX() * 0.5f);
+                    p.setVelocityY(p.getVelocityY() * 0.5f);
+                }
+                if (listener != null) listener.onPowerUp(activePowerUp);
+                break;
+        }
+    }
+
+    private void onScheduledEvent(int kind) {
+        switch (kind) {
+            case EVENT_GOAL_RESET:
+                resetPositions();
+                resetting = false;
+                goalResetEvent = TickScheduler.NO_EVENT;
+                break;
+            case EVENT_POWER_UP_END:
+                powerUpActive = false;
+                activePowerUp = "";
+                powerUpEndEvent = TickScheduler.NO_EVENT;
+                break;
+        }
+    }
+
+    // Game-time duration in ticks at the current tick rate
+    private long ticksFor(long millis) {
+        return Math.max(1, Math.round(millis / (stepSeconds * 1000f)));
+    }
+
+    private void resetPositions() {
+        if (pucks.length == 1) {
+            puck.reset();
+        } else {
+            layoutPucks();
+        }
+        player1.setX(Constants.WINDOW_WIDTH/2);
+        player1.setY(Constants.TABLE_Y + Constants.TABLE_HEIGHT - 100);
+
+        player2.setX(Constants.WINDOW_WIDTH/2);
+        player2.setY(Constants.TABLE_Y + 100);
+
+        if (player1Ai != null) player1Ai.reset();
+        if (player2Ai != null) player2Ai.reset();
+    }
+
+    // Spreads the pucks over a grid around the centre of the table
+    private void layoutPucks() {
+        int perRow = (int)Math.ceil(Math.sqrt(pucks.length * 2.0));
+        int rowCount = (pucks.length + perRow - 1) / perRow;
+        float spacing = Constants.PUCK_RADIUS * 2.5f;
+        float startX = Constants.WINDOW_WIDTH/2 - (perRow - 1) * spacing / 2;
+        float startY = Constants.WINDOW_HEIGHT/2 - (rowCount - 1) * spacing / 2;
+
+        for (int i = 0; i < pucks.length; i++) {
+            pucks[i].reset();
+            pucks[i].setX(startX + (i % perRow) * spacing);
+            pucks[i].setY(startY + (i / perRow) * spacing);
+        }
+    }
+
+    public void reset() {
+        // Drops a pending goal reset or power-up expiry from the previous game
+        scheduler.clear();
+        goalResetEvent = TickScheduler.NO_EVENT;
+        powerUpEndEvent = TickScheduler.NO_EVENT;
+
+        player1Score = 0;
+        player2Score = 0;
+        gameOver = false;
+        resetting = false;
+        powerUpActive = false;
+        activePowerUp = "";
+        resetPositions();
+    }
+
+    // Writes everything step() depends on; restoreState() reads it back in the
+    // same order. Listener, seed and AI difficulty are setup, not state.
+    public void saveState(StateBuffer out) {
+        out.putLong(ticks);
+        out.putLong(timeMillis);
+        out.putFloat(timeRemainder);
+        out.putLong(player1Score);
+        out.putLong(player2Score);
+        out.putBoolean(gameOver);
+        out.putBoolean(resetting);
+        out.putLong(goalResetEvent);
+        out.putBoolean(powerUpActive);
+        out.putLong(powerUpIndex(activePowerUp));
+        out.putLong(powerUpEndEvent);
+        out.putLong(random.getState());
+        scheduler.saveState(out);
+
+        for (Puck p : pucks) {
+            p.saveState(out);
+        }
+        player1.saveState(out);
+        player2.saveState(out);
+        if (player1Ai != null) player1Ai.saveState(out);
+        if (player2Ai != null) player2Ai.saveState(out);
+    }
+
+    public void restoreState(StateBuffer in) {
+        ticks = in.getLong();
+        timeMillis = in.getLong();
+        timeRemainder = in.getFloat();
+        player1Score = in.getInt();
+        player2Score = in.getInt();
+        gameOver = in.getBoolean();
+        resetting = in.getBoolean();
+        goalResetEvent = in.getLong();
+        powerUpActive = in.getBoolean();
+        int powerUp = in.getInt();
+        activePowerUp = powerUp < 0 ? "" : POWER_UPS[powerUp];
+        powerUpEndEvent = in.getLong();
+        random.setState(in.getLong());
+        scheduler.restoreState(in);
+
+        for (Puck p : pucks) {
+            p.restoreState(in);
+        }
+        player1.restoreState(in);
+        player2.restoreState(in);
+        if (player1Ai != null) player1Ai.restoreState(in);
+        if (player2Ai != null) player2Ai.restoreState(in);
+    }
+
+    private static int powerUpIndex(String powerUp) {
+        for (int i = 0; i < POWER_UPS.length; i++) {
+            if (POWER_UPS[i].equals(powerUp)) return i;
+        }
+        return -1;
+    }
+
+    // Hash of the simulation state; two runs that stayed bit-identical give the same value
+    public long checksum() {
+        long hash = mix(seed, ticks);
+        hash = mix(hash, timeMillis);
+        hash = mix(hash, Float.floatToIntBits(timeRemainder));
+        hash = mix(hash, player1Score);
+        hash = mix(hash, player2Score);
+        hash = mix(hash, scheduler.getDueTick(goalResetEvent));
+        hash = mix(hash, powerUpActive ? activePowerUp.hashCode() + scheduler.getDueTick(powerUpEndEvent) : -1);
+        hash = mix(hash, random.getState());
+
+        for (Puck p : pucks) {
+            hash = mix(hash, Float.floatToIntBits(p.getX()));
+            hash = mix(hash, Float.floatToIntBits(p.getY()));
+            hash = mix(hash, Float.floatToIntBits(p.getVelocityX()));
+            hash = mix(hash, Float.floatToIntBits(p.getVelocityY()));
+        }
+        for (Mallet m : mallets) {
+            hash = mix(hash, Float.floatToIntBits(m.getX()));
+            hash = mix(hash, Float.floatToIntBits(m.getY()));
+            hash = mix(hash, Float.floatToIntBits(m.getVelocityX()));
+            hash = mix(hash, Float.floatToIntBits(m.getVelocityY()));
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, long value) {
+        hash = (hash ^ value) * 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 29);
+    }
+
+    // Getters
+    public long getSeed() { return seed; }
+    public Puck getPuck() { return puck; }
+    public Puck[] getPucks() { return pucks; }
+    public Mallet getPlayer1() { return player1; }
+    public Mallet getPlayer2() { return player2; }
+    public AI getPlayer1Ai() { return player1Ai; }
+    public AI getPlayer2Ai() { return player2Ai; }
+    public int getWinScore() { return winScore; }
+    public int getPlayer1Score() { return player1Score; }
+    public int getPlayer2Score() { return player2Score; }
+    public boolean isGameOver() { return gameOver; }
+    public boolean isResetting() { return resetting; }
+    public boolean isPowerUpActive() { return powerUpActive; }
+    public String getActivePowerUp() { return activePowerUp; }
+    public int getPowerUpRadius() { return powerUpRadius; }
+    public long getTimeMillis() { return timeMillis; }
+    public long getTicks() { return ticks; }
+}
@@ -0,0 +1,18 @@
+package airhockey.sim;
+
+// Player inputs for a single simulation step. Reused from tick to tick.
+public class MatchInput {
+    // Player 1 mouse target, used while the mouse button is held in mouse mode
+    public boolean p1MouseActive;
+    public float p1MouseX, p1MouseY;
+
+    // Keyboard directions, each -1, 0 or 1
+    public int p1DirX, p1DirY;
+    public int p2DirX, p2DirY;
+
+    public void clear() {
+        p1MouseActive = false;
+        p1DirX = p1DirY = 0;
+        p2DirX = p2DirY = 0;
+    }
+}
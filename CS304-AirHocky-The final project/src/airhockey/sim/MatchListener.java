@@ -0,0 +1,12 @@
+package airhockey.sim;
+
+import airhockey.core.Mallet;
+
+// Notified of match events so a front end can play sounds and animations
+public interface MatchListener {
+    void onMalletHit(Mallet mallet);
+
+    void onPowerUp(String powerUp);
+
+    void onGoal(boolean player1Scored);
+}
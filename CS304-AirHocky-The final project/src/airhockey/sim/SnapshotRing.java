@@ -0,0 +1,95 @@
+package airhockey.sim;
+
+import airhockey.utils.StateBuffer;
+
+// The last N ticks of a Match, kept in one preallocated float array and one
+// long array. Saving and restoring copy a fixed-size slot in place, so a
+// save every tick allocates nothing.
+public class SnapshotRing {
+    private final int capacity;
+    private final int floatStride;
+    private final int longStride;
+    private final StateBuffer buffer;
+    private final long[] slotTicks;
+
+    private int head = 0; // Next slot to write
+    private int size = 0;
+
+    public SnapshotRing(Match match, int capacity) {
+        // A dry run through saveState gives the slot size for this match
+        StateBuffer sizer = StateBuffer.measure();
+        match.saveState(sizer);
+        this.capacity = capacity;
+        this.floatStride = sizer.getFloatPosition();
+        this.longStride = sizer.getLongPosition();
+        this.buffer = new StateBuffer(new float[capacity * floatStride], new long[capacity * longStride]);
+        this.slotTicks = new long[capacity];
+    }
+
+    public void save(Match match) {
+        // Saving the same tick twice (e.g. while the match is over) replaces it
+        if (size > 0 && slotTicks[previous(head)] == match.getTicks()) {
+            head = previous(head);
+            size--;
+        }
+
+        buffer.seek(head * floatStride, head * longStride);
+        match.saveState(buffer);
+        slotTicks[head] = match.getTicks();
+
+        head = (head + 1) % capacity;
+        if (size < capacity) size++;
+    }
+
+    // Puts the match back to the state saved at the given tick. Returns false
+    // if that tick is no longer (or was never) in the ring.
+    public boolean restore(Match match, long tick) {
+        int slot = find(tick);
+        if (slot < 0) return false;
+
+        buffer.seek(slot * floatStride, slot * longStride);
+        match.restoreState(buffer);
+        return true;
+    }
+
+    // Discards everything saved after the given tick, e.g. after a rewind
+    public void truncateAfter(long tick) {
+        while (size > 0 && slotTicks[previous(head)] > tick) {
+            head = previous(head);
+            size--;
+        }
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    private int find(long tick) {
+        if (size == 0) return -1;
+
+        // Saved once per tick, the slot follows directly from the age
+        long age = getNewestTick() - tick;
+        if (age >= 0 && age < size) {
+            int slot = (int)((head - 1 - age + capacity) % capacity);
+            if (slotTicks[slot] == tick) return slot;
+        }
+
+        // Gaps in the saved ticks - fall back to a scan
+        for (int i = 0, slot = previous(head); i < size; i++, slot = previous(slot)) {
+            if (slotTicks[slot] == tick) return slot;
+        }
+        return -1;
+    }
+
+    private int previous(int slot) {
+        return (slot - 1 + capacity) % capacity;
+    }
+
+    public long getNewestTick() { return size > 0 ? slotTicks[previous(head)] : -1; }
+    public long getOldestTick() { return size > 0 ? slotTicks[(head - size + capacity) % capacity] : -1; }
+    public int getSize() { return size; }
+    public int getCapacity() { return capacity; }
+    public int getFloatStride() { return floatStride; }
+    public int getLongStride() { return longStride; }
+}
@@ -0,0 +1,229 @@
+package airhockey.sim;
+
+import airhockey.utils.StateBuffer;
+
+// Delayed game events on simulation ticks, kept in a hierarchical timing wheel:
+// four levels of 64 slots, each level 64 times coarser than the one below.
+// Events are cascaded down a level as their time approaches, so scheduling,
+// cancelling and advancing are all O(1) apart from the occasional cascade.
+// The scheduler only moves when advance() is called. A paused match does not
+// advance it, so pending events are paused too. It creates no threads.
+//
+// Events are plain int kinds handed back to a Handler rather than Runnables,
+// so the scheduler can be saved into match snapshots and restored exactly.
+public class TickScheduler {
+    public interface Handler {
+        void onEvent(int kind);
+    }
+
+    public static final long NO_EVENT = -1;
+
+    private static final int LEVELS = 4;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int NONE = -1;
+
+    private final Handler handler;
+
+    // Event pool; a slot index plus its generation forms the handle
+    private final int[] kinds;
+    private final long[] dueTicks;
+    private final long[] sequences; // Scheduling order, used to fire same-tick events in a fixed order
+    private final int[] generations;
+    private final boolean[] pending;
+    private final int[] next;
+    private final int[] previous;
+    private final int[] bucketOf;
+
+    // Head of the event list for each slot of each level
+    private final int[] buckets = new int[LEVELS * SLOTS];
+
+    private int freeHead;
+    private long currentTick = 0;
+    private long sequence = 0;
+
+    public TickScheduler(int capacity, Handler handler) {
+        this.handler = handler;
+        kinds = new int[capacity];
+        dueTicks = new long[capacity];
+        sequences = new long[capacity];
+        generations = new int[capacity];
+        pending = new boolean[capacity];
+        next = new int[capacity];
+        previous = new int[capacity];
+        bucketOf = new int[capacity];
+        clear();
+    }
+
+    // Schedules an event delayTicks from now (at least one tick) and returns a
+    // handle for cancel()
+    public long schedule(int kind, long delayTicks) {
+        int event = freeHead;
+        if (event == NONE) {
+            throw new IllegalStateException("TickScheduler is full (" + kinds.length + " events)");
+        }
+        freeHead = next[event];
+
+        kinds[event] = kind;
+        dueTicks[event] = currentTick + Math.max(1, delayTicks);
+        sequences[event] = sequence++;
+        pending[event] = true;
+        place(event);
+        return handle(event);
+    }
+
+    // Returns false if the event already fired or was cancelled
+    public boolean cancel(long handle) {
+        int event = resolve(handle);
+        if (event == NONE) return false;
+
+        unlink(event);
+        release(event);
+        return true;
+    }
+
+    // Tick the event will fire on, or NO_EVENT if it is no longer pending
+    public long getDueTick(long handle) {
+        int event = resolve(handle);
+        return event == NONE ? NO_EVENT : dueTicks[event];
+    }
+
+    // Moves one tick forward and fires everything due on it
+    public void advance() {
+        currentTick++;
+
+        // Each time a level wraps, the next level's current slot moves down
+        for (int level = 1; level < LEVELS; level++) {
+            if (((currentTick >>> (SLOT_BITS * (level - 1))) & SLOT_MASK) != 0) break;
+            cascade(level * SLOTS + (int)((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK));
+        }
+
+        int bucket = (int)(currentTick & SLOT_MASK);
+        while (true) {
+            // Fire in scheduling order, one at a time, since a handler may
+            // schedule or cancel other events in this slot
+            int first = NONE;
+            for (int event = buckets[bucket]; event != NONE; event = next[event]) {
+                if (dueTicks[event] == currentTick && (first == NONE || sequences[event] < sequences[first])) {
+                    first = event;
+                }
+            }
+            if (first == NONE) break;
+
+            int kind = kinds[first];
+            unlink(first);
+            release(first);
+            handler.onEvent(kind);
+        }
+    }
+
+    // Cancels everything, e.g. when the match restarts
+    public void clear() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = NONE;
+        }
+        for (int event = 0; event < kinds.length; event++) {
+            pending[event] = false;
+            next[event] = event + 1 < kinds.length ? event + 1 : NONE;
+        }
+        freeHead = kinds.length > 0 ? 0 : NONE;
+    }
+
+    // Snapshot support - the whole pool is written so the size never changes
+    public void saveState(StateBuffer out) {
+        out.putLong(currentTick);
+        out.putLong(sequence);
+        for (int event = 0; event < kinds.length; event++) {
+            out.putBoolean(pending[event]);
+            out.putLong(generations[event]);
+            out.putLong(kinds[event]);
+            out.putLong(dueTicks[event]);
+            out.putLong(sequences[event]);
+        }
+    }
+
+    public void restoreState(StateBuffer in) {
+        clear();
+        currentTick = in.getLong();
+        sequence = in.getLong();
+        for (int event = 0; event < kinds.length; event++) {
+            pending[event] = in.getBoolean();
+            generations[event] = in.getInt();
+            kinds[event] = in.getInt();
+            dueTicks[event] = in.getLong();
+            sequences[event] = in.getLong();
+        }
+
+        // Rebuild the free list and the wheel from the pool
+        freeHead = NONE;
+        for (int event = kinds.length - 1; event >= 0; event--) {
+            if (pending[event]) {
+                place(event);
+            } else {
+                next[event] = freeHead;
+                freeHead = event;
+            }
+        }
+    }
+
+    private void place(int event) {
+        long delta = dueTicks[event] - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        // Events beyond the top level wait in its slots and are re-placed on each cascade
+        int slot = (int)((dueTicks[event] >>> (SLOT_BITS * level)) & SLOT_MASK);
+        link(event, level * SLOTS + slot);
+    }
+
+    private void cascade(int bucket) {
+        int event = buckets[bucket];
+        buckets[bucket] = NONE;
+        while (event != NONE) {
+            int following = next[event];
+            place(event);
+            event = following;
+        }
+    }
+
+    private void link(int event, int bucket) {
+        int head = buckets[bucket];
+        next[event] = head;
+        previous[event] = NONE;
+        if (head != NONE) previous[head] = event;
+        buckets[bucket] = event;
+        bucketOf[event] = bucket;
+    }
+
+    private void unlink(int event) {
+        if (previous[event] != NONE) {
+            next[previous[event]] = next[event];
+        } else {
+            buckets[bucketOf[event]] = next[event];
+        }
+        if (next[event] != NONE) previous[next[event]] = previous[event];
+    }
+
+    private void release(int event) {
+        pending[event] = false;
+        generations[event]++; // Invalidates outstanding handles
+        next[event] = freeHead;
+        freeHead = event;
+    }
+
+    private long handle(int event) {
+        return ((long) generations[event] << 32) | event;
+    }
+
+    private int resolve(long handle) {
+        if (handle == NO_EVENT) return NONE;
+        int event = (int) handle;
+        if (event < 0 || event >= kinds.length) return NONE;
+        if (!pending[event] || generations[event] != (int)(handle >>> 32)) return NONE;
+        return event;
+    }
+
+    public long getCurrentTick() { return currentTick; }
+}
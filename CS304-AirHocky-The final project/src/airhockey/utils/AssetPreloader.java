@@ -0,0 +1,43 @@
+package airhockey.utils;
+
+import java.util.concurrent.*;
+
+// Loads images and sounds on background threads, started while the
+// introduction is showing, and keeps each finished asset for everyone who
+// asks for it afterwards. An asset is named by a key and made by a loader;
+// get() returns it at once if it is ready, waits if its load is still running
+// and starts it if nobody asked for it yet. Images themselves come from the
+// ImageCache, which also keeps them once the loads are done.
+public class AssetPreloader {
+    private static final int THREADS = Math.max(1,
+            Math.min(Runtime.getRuntime().availableProcessors() - 1, Constants.ASSET_LOADER_THREADS));
+
+    private static final ExecutorService executor = Executors.newFixedThreadPool(THREADS, task -> {
+        Thread thread = new Thread(task, "Asset loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final ConcurrentHashMap<String, Future<?>> assets = new ConcurrentHashMap<>();
+
+    private AssetPreloader() {
+    }
+
+    // Starts loading the asset unless it is loading or loaded already
+    @SuppressWarnings("unchecked")
+    public static <T> Future<T> preload(String key, Callable<T> loader) {
+        return (Future<T>) assets.computeIfAbsent(key, k -> executor.submit(loader));
+    }
+
+    // The asset, waiting for its load if need be; null if it could not be loaded
+    public static <T> T get(String key, Callable<T> loader) {
+        try {
+            return preload(key, loader).get();
+        } catch (ExecutionException e) {
+            System.out.println("Could not load " + key + ": " + e.getCause());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+}
@@ -17,6 +17,10 @@ public class Constants {
     public static final int PUCK_RADIUS = 16;
     public static final int MALLET_RADIUS = 30;
 
+    // Chaos mode
+    public static final int CHAOS_PUCK_COUNT = 150;
+    public static final int CHAOS_WIN_SCORE = 100;
+
     // Goal
     public static final int GOAL_WIDTH = 180;
     public static final int GOAL_DEPTH = 10;
@@ -25,6 +29,39 @@ public class Constants {
     public static final float MAX_SPEED = 25.0f;
     public static final float FRICTION = 0.98f;
     public static final float WALL_BOUNCE = 0.85f;
+    public static final float SPEED_BOOST = 1.5f; // Puck speed multiplier of the speed boost power-up
+    public static final float WALL_RESTITUTION = 0.9f;  // Share of the puck's speed into a wall kept on the rebound
+    public static final float MALLET_BOUNCE = 1.4f;     // Impulse per unit of closing speed when a mallet hits the puck
+    public static final float MALLET_CARRY = 0.6f;      // Share of the mallet's velocity passed on to the puck
+    public static final float MALLET_APPROACH = 0.5f;   // Largest share of the gap to its target a mallet closes per tick
+    public static final float MALLET_DAMPING = 0.9f;    // Mallet speed kept per tick once it reaches its target
+
+    // Simulation - speeds above are in pixels per tick at BASE_TICK_RATE
+    public static final int BASE_TICK_RATE = 60;
+    public static final int DEFAULT_TICK_RATE = 60;
+    public static final int[] TICK_RATES = {60, 120, 240};
+    public static final int MAX_CATCH_UP_STEPS = 5;
+    public static final int[] FRAME_RATES = {0, 30, 60, 120, 144}; // 0 follows the display refresh rate
+    public static final int DEFAULT_FRAME_RATE = 0;
+    public static final int IDLE_FRAME_RATE = 15; // Paused / game over: enough for the blinking text
+
+    // Rendering backend: -Dairhockey.renderer=canvas for BufferStrategy active
+    // rendering, anything else for the Swing panel
+    public static final String RENDERER_PROPERTY = "airhockey.renderer";
+    public static final float DIRTY_REPAINT_MAX_COVERAGE = 0.4f; // Above this share of the window, repaint it all
+    public static final int CANVAS_BUFFERS = 2; // Double buffering keeps one frame less queued than three
+    // The scene is laid out in WINDOW_WIDTH x WINDOW_HEIGHT units, drawn at
+    // RENDER_SCALE pixels per unit and scaled once to the window:
+    // -Dairhockey.renderScale=2 renders at 2400x1400. The default follows the
+    // main screen's scaling, so a HiDPI display gets one pixel per device pixel.
+    public static final String RENDER_SCALE_PROPERTY = "airhockey.renderScale";
+    public static final float RENDER_SCALE = renderScale();
+    public static final float MIN_RENDER_SCALE = 0.25f;
+    public static final float MAX_RENDER_SCALE = 4.0f;
+    public static final int SNAPSHOT_HISTORY = 480; // Ticks kept for rewind - 2 s at 240 Hz
+    public static final int INPUT_QUEUE_CAPACITY = 1024; // Must be a power of two
+    public static final int ASSET_LOADER_THREADS = 2; // At most; one core is left to the introduction
+    public static final long IMAGE_CACHE_STRONG_BYTES = 24L << 20; // Decoded images held strongly; older ones go soft
 
     // Controls
     public static final float MOUSE_SENSITIVITY = 0.25f;
@@ -34,6 +71,10 @@ public class Constants {
     // Game
     public static final int WIN_SCORE = 7;
     public static final int GOAL_RESET_DELAY = 1500;
+    public static final int GOAL_BURST_PARTICLES = 50;     // Thrown out when the goal is scored
+    public static final int GOAL_TRICKLE_PARTICLES = 30;   // Topped up to while the animation runs
+    public static final int PARTICLE_CAPACITY = 16384;
+    public static final int REDUCED_PARTICLE_LIMIT = 12;  // Lowest render quality tier
     // Game states
     public static final int STATE_MENU = 0;
     public static final int STATE_PLAYING = 1;
@@ -71,6 +112,22 @@ public class Constants {
 
     public static Theme CURRENT_THEME = Theme.MODERN;
 
+    private static float renderScale() {
+        float scale = 1.0f;
+        String property = System.getProperty(RENDER_SCALE_PROPERTY);
+        if (property != null) {
+            try {
+                scale = Float.parseFloat(property);
+            } catch (NumberFormatException e) {
+                System.out.println("Ignoring " + RENDER_SCALE_PROPERTY + "=" + property);
+            }
+        } else if (!GraphicsEnvironment.isHeadless()) {
+            scale = (float) GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                    .getDefaultConfiguration().getDefaultTransform().getScaleX();
+        }
+        return Math.max(MIN_RENDER_SCALE, Math.min(scale, MAX_RENDER_SCALE));
+    }
+
     public static Color getPlayer2Color(boolean isAI) {
         return isAI ? AI_COLOR : PLAYER2_COLOR;
     }
@@ -78,13 +135,13 @@ public class Constants {
     public static Color getTableColor() {
         switch(CURRENT_THEME) {
             case CLASSIC:
-                return new Color(0, 100, 40);
+                return RenderCache.color(0, 100, 40);
             case MODERN:
-                return new Color(0, 120, 60);
+                return RenderCache.color(0, 120, 60);
             case DARK:
-                return new Color(0, 80, 30);
+                return RenderCache.color(0, 80, 30);
             case ICE:
-                return new Color(200, 230, 255);
+                return RenderCache.color(200, 230, 255);
             default:
                 return TABLE_COLOR;
         }
@@ -95,7 +152,7 @@ public class Constants {
         int style = bold ? Font.BOLD : Font.PLAIN;
         String fontName = bold ? "Segoe UI Black" : "Segoe UI";
         try {
-            return new Font(fontName, style, size);
+            return RenderCache.font(fontName, style, size);
         } catch (Exception e) {
             // Fallback to Arial if font not available
             return new Font(bold ? "Arial Black" : "Arial", style, size);
@@ -104,7 +161,7 @@ public class Constants {
 
     public static Font getImpactFont(int size) {
         try {
-            return new Font("Impact", Font.BOLD, size);
+            return RenderCache.font("Impact", Font.BOLD, size);
         } catch (Exception e) {
             return new Font("Arial Black", Font.BOLD, size);
         }
@@ -0,0 +1,126 @@
+package airhockey.utils;
+
+import java.awt.geom.Path2D;
+
+// The parts of the screen that changed since the last frame, as a short list
+// of disjoint rectangles. Overlapping rectangles are merged as they are added.
+// Past MAX_RECTS the new one is merged into whichever existing rectangle grows
+// the least, so the list stays small enough to clip to.
+public class DirtyRegion {
+    private static final int MAX_RECTS = 16;
+
+    private final int[] x0 = new int[MAX_RECTS];
+    private final int[] y0 = new int[MAX_RECTS];
+    private final int[] x1 = new int[MAX_RECTS];
+    private final int[] y1 = new int[MAX_RECTS];
+    private int count = 0;
+    private boolean full = false;
+
+    public void clear() {
+        count = 0;
+        full = false;
+    }
+
+    // Marks everything dirty; later adds are ignored until clear()
+    public void markFull() {
+        full = true;
+    }
+
+    public boolean isFull() { return full; }
+    public boolean isEmpty() { return !full && count == 0; }
+
+    public void add(int x, int y, int width, int height) {
+        if (full || width <= 0 || height <= 0) return;
+
+        int ax0 = x, ay0 = y, ax1 = x + width, ay1 = y + height;
+
+        // Absorb every rectangle the new one overlaps; the grown rectangle can
+        // reach further ones, so repeat until nothing overlaps
+        boolean merged = true;
+        while (merged) {
+            merged = false;
+            for (int i = 0; i < count; i++) {
+                if (ax0 < x1[i] && x0[i] < ax1 && ay0 < y1[i] && y0[i] < ay1) {
+                    ax0 = Math.min(ax0, x0[i]);
+                    ay0 = Math.min(ay0, y0[i]);
+                    ax1 = Math.max(ax1, x1[i]);
+                    ay1 = Math.max(ay1, y1[i]);
+                    remove(i);
+                    merged = true;
+                    break;
+                }
+            }
+        }
+
+        if (count == MAX_RECTS) {
+            int best = 0;
+            long bestGrowth = Long.MAX_VALUE;
+            for (int i = 0; i < count; i++) {
+                long union = (long)(Math.max(ax1, x1[i]) - Math.min(ax0, x0[i]))
+                        * (Math.max(ay1, y1[i]) - Math.min(ay0, y0[i]));
+                long growth = union - (long)(x1[i] - x0[i]) * (y1[i] - y0[i]);
+                if (growth < bestGrowth) {
+                    bestGrowth = growth;
+                    best = i;
+                }
+            }
+            int bx0 = Math.min(ax0, x0[best]), by0 = Math.min(ay0, y0[best]);
+            int bx1 = Math.max(ax1, x1[best]), by1 = Math.max(ay1, y1[best]);
+            remove(best);
+            add(bx0, by0, bx1 - bx0, by1 - by0);
+            return;
+        }
+
+        x0[count] = ax0;
+        y0[count] = ay0;
+        x1[count] = ax1;
+        y1[count] = ay1;
+        count++;
+    }
+
+    private void remove(int i) {
+        count--;
+        x0[i] = x0[count];
+        y0[i] = y0[count];
+        x1[i] = x1[count];
+        y1[i] = y1[count];
+    }
+
+    // Total area; the rectangles never overlap, so this is the covered area
+    public long getArea() {
+        long area = 0;
+        for (int i = 0; i < count; i++) {
+            area += (long)(x1[i] - x0[i]) * (y1[i] - y0[i]);
+        }
+        return area;
+    }
+
+    public int getBoundsX() { return minOf(x0); }
+    public int getBoundsY() { return minOf(y0); }
+    public int getBoundsWidth() { return maxOf(x1) - minOf(x0); }
+    public int getBoundsHeight() { return maxOf(y1) - minOf(y0); }
+
+    // Writes the rectangles into path (reset first) for use as a clip
+    public void toPath(Path2D.Float path) {
+        path.reset();
+        for (int i = 0; i < count; i++) {
+            path.moveTo(x0[i], y0[i]);
+            path.lineTo(x1[i], y0[i]);
+            path.lineTo(x1[i], y1[i]);
+            path.lineTo(x0[i], y1[i]);
+            path.closePath();
+        }
+    }
+
+    private int minOf(int[] values) {
+        int min = Integer.MAX_VALUE;
+        for (int i = 0; i < count; i++) min = Math.min(min, values[i]);
+        return min;
+    }
+
+    private int maxOf(int[] values) {
+        int max = Integer.MIN_VALUE;
+        for (int i = 0; i < count; i++) max = Math.max(max, values[i]);
+        return max;
+    }
+}
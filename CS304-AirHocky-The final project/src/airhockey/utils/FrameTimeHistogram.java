@@ -0,0 +1,63 @@
+package airhockey.utils;
+
+import java.util.Arrays;
+
+// Log-linear histogram of durations in microseconds, laid out like an HDR
+// histogram: each power of two is split into 16 sub-buckets, so any value is
+// recorded to within about 6% with a few hundred counters and no allocation.
+public class FrameTimeHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_SHIFT = 26; // Values up to about a minute
+
+    private final long[] counts = new long[(MAX_SHIFT + 2) * SUB_BUCKETS];
+    private long totalCount = 0;
+    private long maxValue = 0;
+
+    public void record(long micros) {
+        long value = Math.max(0, micros);
+        counts[indexOf(value)]++;
+        totalCount++;
+        if (value > maxValue) maxValue = value;
+    }
+
+    // Value at the given percentile (0-100), reported as the top of its bucket
+    public long getValueAtPercentile(double percentile) {
+        if (totalCount == 0) return 0;
+
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * totalCount));
+        long seen = 0;
+        for (int index = 0; index < counts.length; index++) {
+            seen += counts[index];
+            if (seen >= target) {
+                return Math.min(maxValue, highestValueIn(index));
+            }
+        }
+        return maxValue;
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        maxValue = 0;
+    }
+
+    public long getMax() { return maxValue; }
+    public long getTotalCount() { return totalCount; }
+
+    // Values below 2 * SUB_BUCKETS map directly; above that the low bits are
+    // dropped so each power of two keeps SUB_BUCKETS buckets
+    private static int indexOf(long value) {
+        int highestBit = 63 - Long.numberOfLeadingZeros(value | 1);
+        int shift = Math.min(MAX_SHIFT, Math.max(0, highestBit - SUB_BUCKET_BITS));
+        long subBucket = Math.min(value >>> shift, 2 * SUB_BUCKETS - 1);
+        return (int)(shift * SUB_BUCKETS + subBucket);
+    }
+
+    private static long highestValueIn(int index) {
+        if (index < 2 * SUB_BUCKETS) return index;
+        int shift = index / SUB_BUCKETS - 1;
+        long subBucket = index - shift * SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,148 @@
+package airhockey.utils;
+
+import java.awt.*;
+import java.awt.font.FontRenderContext;
+import java.awt.font.LineMetrics;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+
+// One line of HUD text pre-rendered into an image, drop shadow and gradient
+// included. The image is made for a key - a score, a mode, the text itself -
+// and only redrawn when the key or the style changes, so a frame where the
+// text is the same costs one drawImage instead of layout and several passes.
+// Like the sprite atlas, the image is rendered at the render scale.
+public class HudText {
+    private static final int PADDING = 3; // Room for antialiased edges and overhang
+    private static final float SCALE = Constants.RENDER_SCALE;
+    // Measured as drawn: glyph advances are rounded at the scaled size
+    private static final FontRenderContext FRC =
+            new FontRenderContext(AffineTransform.getScaleInstance(SCALE, SCALE), true, false);
+
+    private final Font font;
+    private final Color color;
+    private Color gradientColor;   // Bottom of a vertical gradient; null for a flat fill
+    private int gradientHeight;
+    private Color shadowColor;
+    private int shadowOffset;
+
+    // What the image was made for: a number, or a string if keyText is set
+    private boolean valid = false;
+    private long key;
+    private String keyText;
+
+    private BufferedImage image;
+    private int width;
+    private int ascent;
+    private int boxWidth, boxHeight;     // The text's part of the image, in scene units
+    private int pixelWidth, pixelHeight; // ...and in image pixels
+
+    public HudText(Font font, Color color) {
+        this.font = font;
+        this.color = color;
+    }
+
+    public HudText shadow(Color color, int offset) {
+        shadowColor = color;
+        shadowOffset = offset;
+        valid = false;
+        return this;
+    }
+
+    // Fades from the text color, height pixels above the baseline, to bottom
+    // at the baseline
+    public HudText gradient(Color bottom, int height) {
+        gradientColor = bottom;
+        gradientHeight = height;
+        valid = false;
+        return this;
+    }
+
+    public boolean isCurrent(long key) {
+        return valid && keyText == null && this.key == key;
+    }
+
+    public boolean isCurrent(String key) {
+        return valid && key.equals(keyText);
+    }
+
+    public void set(long key, String text) {
+        this.key = key;
+        keyText = null;
+        render(text);
+    }
+
+    public void set(String key, String text) {
+        keyText = key;
+        render(text);
+    }
+
+    // Text that is its own key
+    public void set(String text) {
+        if (!isCurrent(text)) {
+            set(text, text);
+        }
+    }
+
+    // Advance width, as FontMetrics.stringWidth would give it
+    public int getWidth() {
+        return width;
+    }
+
+    public void draw(Graphics2D g2d, int x, int baseline) {
+        int left = x - PADDING;
+        int top = baseline - PADDING - ascent;
+        g2d.drawImage(image, left, top, left + boxWidth, top + boxHeight,
+                0, 0, pixelWidth, pixelHeight, null);
+    }
+
+    public void draw(Graphics2D g2d, int x, int baseline, float alpha) {
+        Composite composite = g2d.getComposite();
+        g2d.setComposite(RenderCache.composite(alpha));
+        draw(g2d, x, baseline);
+        g2d.setComposite(composite);
+    }
+
+    private void render(String text) {
+        width = (int) Math.ceil(font.getStringBounds(text, FRC).getWidth());
+        LineMetrics metrics = font.getLineMetrics(text, FRC);
+        ascent = (int) Math.ceil(metrics.getAscent());
+        int descent = (int) Math.ceil(metrics.getDescent());
+
+        boxWidth = width + shadowOffset + PADDING * 2;
+        boxHeight = ascent + descent + shadowOffset + PADDING * 2;
+        pixelWidth = (int) Math.ceil(boxWidth * SCALE);
+        pixelHeight = (int) Math.ceil(boxHeight * SCALE);
+        if (image == null || image.getWidth() < pixelWidth || image.getHeight() < pixelHeight) {
+            image = SpriteAtlas.createImage(pixelWidth, pixelHeight);
+        }
+
+        Graphics2D g2d = image.createGraphics();
+        g2d.setComposite(AlphaComposite.Clear);
+        g2d.fillRect(0, 0, image.getWidth(), image.getHeight());
+        g2d.setComposite(AlphaComposite.SrcOver);
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setRenderingHint(RenderingHints.KEY_RENDERING,
+                RenderingHints.VALUE_RENDER_QUALITY);
+        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+                RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g2d.setFont(font);
+        g2d.scale(SCALE, SCALE);
+
+        int baseline = PADDING + ascent;
+        if (shadowColor != null) {
+            g2d.setColor(shadowColor);
+            g2d.drawString(text, PADDING + shadowOffset, baseline + shadowOffset);
+        }
+        if (gradientColor != null) {
+            g2d.setPaint(new GradientPaint(PADDING, baseline - gradientHeight, color,
+                    PADDING, baseline, gradientColor));
+        } else {
+            g2d.setColor(color);
+        }
+        g2d.drawString(text, PADDING, baseline);
+        g2d.dispose();
+
+        valid = true;
+    }
+}
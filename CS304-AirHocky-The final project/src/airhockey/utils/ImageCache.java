@@ -0,0 +1,189 @@
+package airhockey.utils;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.SoftReference;
+import java.util.*;
+
+// Images from the class path, decoded once and kept by path and the size they
+// were scaled to, already in the screen's format. The most recently used ones,
+// up to a byte budget, are held strongly; the rest only through soft
+// references, so the collector can take them back when memory runs short and
+// a later request decodes them again. Paths that do not exist or cannot be
+// decoded are remembered too, so a fallback chain only probes each of them once.
+public class ImageCache {
+    private static final ImageCache shared = new ImageCache(Constants.IMAGE_CACHE_STRONG_BYTES);
+
+    private final long maxStrongBytes;
+    private final LinkedHashMap<String, BufferedImage> strong = new LinkedHashMap<>(16, 0.75f, true);
+    private final HashMap<String, SoftReference<BufferedImage>> soft = new HashMap<>();
+    private final Set<String> missing = new HashSet<>(); // Absent or undecodable
+    private long strongBytes = 0;
+
+    private long hits = 0;      // Found in the strong set
+    private long softHits = 0;  // Found behind a soft reference and made strong again
+    private long misses = 0;    // Decoded
+    private long evictions = 0; // Moved from the strong set to a soft reference
+
+    public ImageCache(long maxStrongBytes) {
+        this.maxStrongBytes = maxStrongBytes;
+    }
+
+    public static ImageCache shared() {
+        return shared;
+    }
+
+    // The first of the paths that exists, scaled to width x height
+    public BufferedImage get(int width, int height, String... paths) {
+        for (String path : paths) {
+            BufferedImage image = get(path, width, height);
+            if (image != null) return image;
+        }
+        return null;
+    }
+
+    // The image at its own size; null if it does not exist or cannot be decoded
+    public BufferedImage get(String path) {
+        return get(path, 0, 0);
+    }
+
+    // The image scaled to width x height, or at its own size if they are 0
+    public BufferedImage get(String path, int width, int height) {
+        String key = path + '@' + width + 'x' + height;
+        synchronized (this) {
+            BufferedImage image = strong.get(key);
+            if (image != null) {
+                hits++;
+                return image;
+            }
+            SoftReference<BufferedImage> ref = soft.remove(key);
+            image = ref != null ? ref.get() : null;
+            if (image != null) {
+                softHits++;
+                keep(key, image);
+                return image;
+            }
+            if (missing.contains(path)) return null;
+            misses++;
+        }
+
+        // Decoded outside the lock, so the asset loader threads do not queue
+        // behind each other
+        BufferedImage image;
+        try {
+            image = load(path, width, height);
+        } catch (IOException e) {
+            synchronized (this) {
+                // Reported only by the first thread to find out
+                if (!missing.add(path)) return null;
+            }
+            System.out.println("Could not decode " + path + ": " + e.getMessage());
+            return null;
+        }
+
+        synchronized (this) {
+            if (image == null) {
+                missing.add(path);
+                return null;
+            }
+            BufferedImage loaded = strong.get(key);
+            if (loaded != null) return loaded; // Another thread got there first
+            keep(key, image);
+            return image;
+        }
+    }
+
+    private void keep(String key, BufferedImage image) {
+        strong.put(key, image);
+        strongBytes += bytes(image);
+
+        // Least recently used first; the newest image stays even if it is
+        // over the budget by itself
+        Iterator<Map.Entry<String, BufferedImage>> eldest = strong.entrySet().iterator();
+        while (strongBytes > maxStrongBytes && strong.size() > 1) {
+            Map.Entry<String, BufferedImage> entry = eldest.next();
+            strongBytes -= bytes(entry.getValue());
+            soft.put(entry.getKey(), new SoftReference<>(entry.getValue()));
+            eldest.remove();
+            evictions++;
+        }
+        soft.values().removeIf(ref -> ref.get() == null);
+    }
+
+    private static long bytes(BufferedImage image) {
+        DataBuffer buffer = image.getRaster().getDataBuffer();
+        return (long) buffer.getSize() * buffer.getNumBanks() * DataBuffer.getDataTypeSize(buffer.getDataType()) / 8;
+    }
+
+    public synchronized long getHits() { return hits; }
+    public synchronized long getSoftHits() { return softHits; }
+    public synchronized long getMisses() { return misses; }
+    public synchronized long getEvictions() { return evictions; }
+    public synchronized long getBytesResident() { return strongBytes; }
+    public synchronized int getStrongCount() { return strong.size(); }
+
+    // Soft entries whose image has not been collected yet
+    public synchronized int getSoftCount() {
+        soft.values().removeIf(ref -> ref.get() == null);
+        return soft.size();
+    }
+
+    // Null if there is no such resource
+    private static BufferedImage load(String path, int width, int height) throws IOException {
+        InputStream in = ImageCache.class.getResourceAsStream(path);
+        if (in == null) return null;
+        BufferedImage image;
+        try {
+            image = ImageIO.read(in);
+        } finally {
+            in.close();
+        }
+        if (image == null) throw new IOException("unsupported format");
+
+        if (width <= 0 || height <= 0) {
+            width = image.getWidth();
+            height = image.getHeight();
+        }
+        return scale(image, width, height);
+    }
+
+    // Scales by halving with bilinear filtering down to twice the target, then
+    // one last bilinear step - close to SCALE_SMOOTH at a fraction of its
+    // cost - into an image in the screen's format, so drawing it needs no
+    // conversion
+    private static BufferedImage scale(BufferedImage image, int width, int height) {
+        BufferedImage current = image;
+        int w = image.getWidth();
+        int h = image.getHeight();
+        while (w / 2 >= width && h / 2 >= height) {
+            w /= 2;
+            h /= 2;
+            current = draw(current, w, h, image.getTransparency());
+        }
+        return draw(current, width, height, image.getTransparency());
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height, int transparency) {
+        BufferedImage target;
+        if (!GraphicsEnvironment.isHeadless()) {
+            target = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                    .getDefaultConfiguration().createCompatibleImage(width, height, transparency);
+        } else {
+            target = new BufferedImage(width, height, transparency == Transparency.OPAQUE
+                    ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB_PRE);
+        }
+        Graphics2D g2d = target.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g2d.setRenderingHint(RenderingHints.KEY_RENDERING,
+                RenderingHints.VALUE_RENDER_QUALITY);
+        g2d.setComposite(AlphaComposite.Src);
+        g2d.drawImage(source, 0, 0, width, height, null);
+        g2d.dispose();
+        return target;
+    }
+}
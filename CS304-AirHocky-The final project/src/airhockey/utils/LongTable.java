@@ -0,0 +1,46 @@
+package airhockey.utils;
+
+// Open-addressing map with primitive keys, so a lookup does not box
+class LongTable<V> {
+    private long[] keys = new long[64];
+    private Object[] values = new Object[64];
+    private int size = 0;
+
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        int mask = keys.length - 1;
+        for (int i = slot(key, mask); values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) return (V) values[i];
+        }
+        return null;
+    }
+
+    void put(long key, V value) {
+        if ((size + 1) * 2 > keys.length) {
+            long[] oldKeys = keys;
+            Object[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new Object[oldValues.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] != null) insert(oldKeys[i], oldValues[i]);
+            }
+        }
+        insert(key, value);
+        size++;
+    }
+
+    private void insert(long key, Object value) {
+        int mask = keys.length - 1;
+        int i = slot(key, mask);
+        while (values[i] != null) {
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+    }
+
+    private static int slot(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,39 @@
+package airhockey.utils;
+
+// Seeded SplitMix64 generator. Unlike Math.random() it has no shared state, and
+// its output depends only on the seed and call order, so a seeded match
+// produces the same numbers on every JVM.
+public class RandomStream {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private long state;
+
+    public RandomStream(long seed) {
+        this.state = seed;
+    }
+
+    public long nextLong() {
+        long z = (state += GOLDEN_GAMMA);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // Uniform in [0, 1), built from the top 53 bits so it is exact everywhere
+    public double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    public int nextInt(int bound) {
+        return (int)(nextDouble() * bound);
+    }
+
+    // An independent stream, e.g. one per AI, so a change in how often one
+    // consumer draws numbers does not shift the sequence seen by the others
+    public RandomStream split() {
+        return new RandomStream(nextLong());
+    }
+
+    public long getState() { return state; }
+    public void setState(long state) { this.state = state; }
+}
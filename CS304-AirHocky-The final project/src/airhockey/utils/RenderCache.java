@@ -0,0 +1,132 @@
+package airhockey.utils;
+
+import java.awt.*;
+import java.util.HashMap;
+import java.util.Map;
+
+// Shared, immutable styling objects for the renderers. Colors are keyed by
+// ARGB, strokes by width/cap/join and fonts by family/style/size, so painting
+// a frame looks them up instead of allocating new ones. Animated alphas go
+// through fade(), which quantizes them onto a ramp of ALPHA_LEVELS steps so a
+// pulsing color only ever needs that many instances.
+public class RenderCache {
+    public static final int ALPHA_LEVELS = 64;
+    private static final int MAX_GRADIENTS = 128;
+
+    private static final LongTable<Color> colors = new LongTable<>();
+    private static final LongTable<Color> brighterColors = new LongTable<>();
+    private static final LongTable<BasicStroke> strokes = new LongTable<>();
+    private static final Map<String, LongTable<Font>> fonts = new HashMap<>();
+    private static final AlphaComposite[] composites = new AlphaComposite[ALPHA_LEVELS];
+    private static final GradientPaint[] gradients = new GradientPaint[MAX_GRADIENTS];
+    private static final float[] gradientCoords = new float[MAX_GRADIENTS * 4];
+    private static int gradientCount = 0;
+
+    private RenderCache() {
+    }
+
+    public static Color color(int r, int g, int b) {
+        return color(r, g, b, 255);
+    }
+
+    public static synchronized Color color(int r, int g, int b, int a) {
+        long key = ((a & 0xFF) << 24) | ((r & 0xFF) << 16) | ((g & 0xFF) << 8) | (b & 0xFF);
+        Color color = colors.get(key);
+        if (color == null) {
+            color = new Color(r, g, b, a);
+            colors.put(key, color);
+        }
+        return color;
+    }
+
+    // The base color at a fraction (0-1) of full opacity, quantized onto the ramp
+    public static Color fade(int r, int g, int b, float alpha) {
+        int level = Math.round(Math.max(0f, Math.min(1f, alpha)) * (ALPHA_LEVELS - 1));
+        return color(r, g, b, level * 255 / (ALPHA_LEVELS - 1));
+    }
+
+    public static Color fade(Color base, float alpha) {
+        return fade(base.getRed(), base.getGreen(), base.getBlue(), alpha);
+    }
+
+    // Color.brighter() without a new instance per call
+    public static synchronized Color brighter(Color base) {
+        long key = base.getRGB();
+        Color color = brighterColors.get(key);
+        if (color == null) {
+            color = color(base.brighter());
+            brighterColors.put(key, color);
+        }
+        return color;
+    }
+
+    private static Color color(Color color) {
+        return color(color.getRed(), color.getGreen(), color.getBlue(), color.getAlpha());
+    }
+
+    // Source-over at a fraction of full opacity, on the same ramp as fade()
+    public static synchronized AlphaComposite composite(float alpha) {
+        int level = Math.round(Math.max(0f, Math.min(1f, alpha)) * (ALPHA_LEVELS - 1));
+        AlphaComposite composite = composites[level];
+        if (composite == null) {
+            composite = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, level / (float)(ALPHA_LEVELS - 1));
+            composites[level] = composite;
+        }
+        return composite;
+    }
+
+    public static BasicStroke stroke(float width) {
+        return stroke(width, BasicStroke.CAP_SQUARE, BasicStroke.JOIN_MITER);
+    }
+
+    public static synchronized BasicStroke stroke(float width, int cap, int join) {
+        long key = ((long) Float.floatToIntBits(width) << 32) | (cap << 8) | join;
+        BasicStroke stroke = strokes.get(key);
+        if (stroke == null) {
+            stroke = new BasicStroke(width, cap, join);
+            strokes.put(key, stroke);
+        }
+        return stroke;
+    }
+
+    public static synchronized Font font(String family, int style, int size) {
+        LongTable<Font> sizes = fonts.get(family);
+        if (sizes == null) {
+            sizes = new LongTable<>();
+            fonts.put(family, sizes);
+        }
+        long key = ((long) style << 32) | size;
+        Font font = sizes.get(key);
+        if (font == null) {
+            font = new Font(family, style, size);
+            sizes.put(key, font);
+        }
+        return font;
+    }
+
+    // For gradients at fixed coordinates only; anything that moves should
+    // translate the Graphics to a cached gradient at the origin instead
+    public static synchronized GradientPaint gradient(float x1, float y1, Color color1,
+                                                      float x2, float y2, Color color2) {
+        for (int i = 0; i < gradientCount; i++) {
+            GradientPaint paint = gradients[i];
+            int c = i * 4;
+            if (gradientCoords[c] == x1 && gradientCoords[c + 1] == y1
+                    && gradientCoords[c + 2] == x2 && gradientCoords[c + 3] == y2
+                    && paint.getColor1().equals(color1) && paint.getColor2().equals(color2)) {
+                return paint;
+            }
+        }
+
+        GradientPaint paint = new GradientPaint(x1, y1, color1, x2, y2, color2);
+        if (gradientCount < MAX_GRADIENTS) {
+            int c = gradientCount * 4;
+            gradientCoords[c] = x1;
+            gradientCoords[c + 1] = y1;
+            gradientCoords[c + 2] = x2;
+            gradientCoords[c + 3] = y2;
+            gradients[gradientCount++] = paint;
+        }
+        return paint;
+    }
+}
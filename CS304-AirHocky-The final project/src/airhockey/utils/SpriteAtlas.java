@@ -0,0 +1,146 @@
+package airhockey.utils;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+// Pre-rendered sprites packed into one translucent image. A sprite is painted
+// once, the first time its key is asked for, and drawn from then on with a
+// single drawImage - one texture for the accelerated pipelines to keep around
+// instead of many small ones. Rows are packed shelf by shelf; when the image
+// is full it doubles in height and keeps every sprite where it was. Sprites
+// are sized in scene units and painted at the atlas scale, so under a matching
+// render scale each one is drawn pixel for pixel.
+public class SpriteAtlas {
+    private static final int WIDTH = 512;
+    private static final int INITIAL_HEIGHT = 256;
+    private static final int PADDING = 1;
+
+    private static final SpriteAtlas shared = new SpriteAtlas(Constants.RENDER_SCALE);
+
+    public interface Painter {
+        // Paints with the origin at the sprite's anchor point
+        void paint(Graphics2D g2d);
+    }
+
+    public static final class Sprite {
+        final int x, y, pixelWidth, pixelHeight; // In the atlas image
+        final int width, height, originX, originY; // In scene units
+
+        Sprite(int x, int y, int pixelWidth, int pixelHeight,
+               int width, int height, int originX, int originY) {
+            this.x = x;
+            this.y = y;
+            this.pixelWidth = pixelWidth;
+            this.pixelHeight = pixelHeight;
+            this.width = width;
+            this.height = height;
+            this.originX = originX;
+            this.originY = originY;
+        }
+    }
+
+    private final float scale; // Atlas pixels per scene unit
+    private final LongTable<Sprite> sprites = new LongTable<>();
+    private volatile BufferedImage image;
+    private int shelfX = 0;
+    private int shelfY = 0;
+    private int shelfHeight = 0;
+
+    public SpriteAtlas() {
+        this(1.0f);
+    }
+
+    public SpriteAtlas(float scale) {
+        this.scale = scale;
+        image = createImage(WIDTH, INITIAL_HEIGHT);
+    }
+
+    public static SpriteAtlas shared() {
+        return shared;
+    }
+
+    // Packs a kind tag, an RGB color, a size and a level (glow alpha etc.) into a key
+    public static long key(int kind, int rgb, int size, int level) {
+        return ((long)(kind & 0xFF) << 56) | ((long)(rgb & 0xFFFFFF) << 32)
+                | ((long)(size & 0xFFFF) << 16) | (level & 0xFFFF);
+    }
+
+    // The sprite for key, or null if it has not been painted yet
+    public synchronized Sprite find(long key) {
+        return sprites.get(key);
+    }
+
+    // Paints a new sprite for key. The box runs from -originX/-originY around
+    // the anchor and must cover all of the painting, antialiased edges included.
+    public synchronized Sprite add(long key, int originX, int originY, int width, int height,
+                                   Painter painter) {
+        Sprite sprite = sprites.get(key);
+        if (sprite == null) {
+            sprite = pack(originX, originY, width, height);
+            Graphics2D g2d = image.createGraphics();
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                    RenderingHints.VALUE_ANTIALIAS_ON);
+            g2d.setRenderingHint(RenderingHints.KEY_RENDERING,
+                    RenderingHints.VALUE_RENDER_QUALITY);
+            g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+                    RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g2d.clipRect(sprite.x, sprite.y, sprite.pixelWidth, sprite.pixelHeight);
+            g2d.translate(sprite.x, sprite.y);
+            g2d.scale(scale, scale);
+            g2d.translate(originX, originY);
+            painter.paint(g2d);
+            g2d.dispose();
+            sprites.put(key, sprite);
+        }
+        return sprite;
+    }
+
+    // Draws the sprite with its anchor at (x, y)
+    public void draw(Graphics2D g2d, Sprite sprite, int x, int y) {
+        int left = x - sprite.originX;
+        int top = y - sprite.originY;
+        g2d.drawImage(image,
+                left, top, left + sprite.width, top + sprite.height,
+                sprite.x, sprite.y, sprite.x + sprite.pixelWidth, sprite.y + sprite.pixelHeight,
+                null);
+    }
+
+    private Sprite pack(int originX, int originY, int width, int height) {
+        int pixelWidth = (int) Math.ceil(width * scale);
+        int pixelHeight = (int) Math.ceil(height * scale);
+        if (pixelWidth + PADDING > WIDTH) {
+            throw new IllegalArgumentException("Sprite wider than the atlas: " + pixelWidth);
+        }
+        if (shelfX + pixelWidth + PADDING > WIDTH) {
+            shelfY += shelfHeight;
+            shelfX = 0;
+            shelfHeight = 0;
+        }
+        while (shelfY + pixelHeight + PADDING > image.getHeight()) {
+            grow();
+        }
+
+        Sprite sprite = new Sprite(shelfX, shelfY, pixelWidth, pixelHeight, width, height, originX, originY);
+        shelfX += pixelWidth + PADDING;
+        shelfHeight = Math.max(shelfHeight, pixelHeight + PADDING);
+        return sprite;
+    }
+
+    private void grow() {
+        BufferedImage grown = createImage(WIDTH, image.getHeight() * 2);
+        Graphics2D g2d = grown.createGraphics();
+        g2d.setComposite(AlphaComposite.Src);
+        g2d.drawImage(image, 0, 0, null);
+        g2d.dispose();
+        image = grown;
+    }
+
+    // A translucent image in the screen's own format, so blits need no conversion
+    static BufferedImage createImage(int width, int height) {
+        if (!GraphicsEnvironment.isHeadless()) {
+            return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                    .getDefaultConfiguration().createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+        }
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+    }
+}
@@ -0,0 +1,58 @@
+package airhockey.utils;
+
+// Cursor over flat float/long arrays that simulation objects write their state
+// into and read it back from, in a fixed order. A buffer created with
+// measure() has no storage and only counts, which is how snapshot sizes are found.
+public class StateBuffer {
+    private final float[] floats;
+    private final long[] longs;
+    private int floatPosition;
+    private int longPosition;
+
+    public StateBuffer(float[] floats, long[] longs) {
+        this.floats = floats;
+        this.longs = longs;
+    }
+
+    public static StateBuffer measure() {
+        return new StateBuffer(null, null);
+    }
+
+    public void seek(int floatPosition, int longPosition) {
+        this.floatPosition = floatPosition;
+        this.longPosition = longPosition;
+    }
+
+    public void putFloat(float value) {
+        if (floats != null) floats[floatPosition] = value;
+        floatPosition++;
+    }
+
+    public void putLong(long value) {
+        if (longs != null) longs[longPosition] = value;
+        longPosition++;
+    }
+
+    public void putBoolean(boolean value) {
+        putLong(value ? 1 : 0);
+    }
+
+    public float getFloat() {
+        return floats[floatPosition++];
+    }
+
+    public long getLong() {
+        return longs[longPosition++];
+    }
+
+    public int getInt() {
+        return (int) getLong();
+    }
+
+    public boolean getBoolean() {
+        return getLong() != 0;
+    }
+
+    public int getFloatPosition() { return floatPosition; }
+    public int getLongPosition() { return longPosition; }
+}
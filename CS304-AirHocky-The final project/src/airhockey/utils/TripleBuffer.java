@@ -0,0 +1,45 @@
+package airhockey.utils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Lock-free hand-off of whole frames from one writer thread to one reader
+// thread. The writer fills its private back buffer and publishes it. The
+// reader always takes the newest published frame. Neither side ever waits for
+// the other, and a frame is never written while it is being read.
+public class TripleBuffer<T> {
+    private static final int INDEX_MASK = 3;
+    private static final int FRESH = 4; // Set when the middle buffer holds an unread frame
+
+    private final Object[] buffers = new Object[3];
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int back = 0;  // Owned by the writer
+    private int front = 2; // Owned by the reader
+
+    public TripleBuffer(Supplier<T> factory) {
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = factory.get();
+        }
+    }
+
+    // Writer side: the buffer to fill before the next publish()
+    @SuppressWarnings("unchecked")
+    public T getBack() {
+        return (T) buffers[back];
+    }
+
+    // Writer side: swaps the filled back buffer into the middle
+    public void publish() {
+        back = middle.getAndSet(back | FRESH) & INDEX_MASK;
+    }
+
+    // Reader side: the newest published frame. It stays untouched by the
+    // writer until the next acquire()
+    @SuppressWarnings("unchecked")
+    public T acquire() {
+        if ((middle.get() & FRESH) != 0) {
+            front = middle.getAndSet(front) & INDEX_MASK;
+        }
+        return (T) buffers[front];
+    }
+}